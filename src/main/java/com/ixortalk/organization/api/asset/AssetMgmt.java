@@ -25,6 +25,7 @@ package com.ixortalk.organization.api.asset;
 
 import com.ixortalk.autoconfigure.oauth2.feign.ServiceToServiceFeignConfiguration;
 import com.ixortalk.organization.api.domain.OrganizationId;
+import com.ixortalk.organization.api.feign.StaleResponseFallback;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
@@ -38,6 +39,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @FeignClient(name = "assetMgmt",url = "${" + IXORTALK_SERVER_ASSETMGMT_URL + "}", configuration = ServiceToServiceFeignConfiguration.class, decode404 = true)
 public interface AssetMgmt {
 
+    @StaleResponseFallback
     @PostMapping(value = "/assets/search/property", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     List<Asset> getAssets(@RequestBody OrganizationId organizationId);
 
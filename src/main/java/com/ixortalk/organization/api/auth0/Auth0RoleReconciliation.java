@@ -0,0 +1,218 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.rest.RoleRestResource;
+import com.ixortalk.organization.api.rest.UserRestResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.RateLimiter;
+import feign.FeignException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Throwables.getCausalChain;
+import static com.google.common.collect.Sets.difference;
+import static com.google.common.collect.Sets.intersection;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.min;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.data.domain.PageRequest.of;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Repairs drift between the roles linked to accepted users ({@code org_role_in_user}) and their roles in Auth0, walking
+ * the users page by page.  Only the roles of the user's own organization are touched.
+ * <p>
+ * Management API calls are paced at {@code reconciliation-calls-per-second}.  A call answered with {@code 429 Too Many
+ * Requests} is retried after the {@code Retry-After} delay, or an exponential backoff from
+ * {@code reconciliation-rate-limit-backoff}, for at most {@code max-attempts} attempts; after that the run stops and
+ * the next one starts over.
+ */
+@Named
+public class Auth0RoleReconciliation {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Auth0RoleReconciliation.class);
+
+    @Inject
+    private UserRestResource userRestResource;
+
+    @Inject
+    private RoleRestResource roleRestResource;
+
+    @Inject
+    private Auth0Roles auth0Roles;
+
+    @Inject
+    private Auth0Users auth0Users;
+
+    @Inject
+    private Auth0RoleSync auth0RoleSync;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    private RateLimiter managementApiRateLimiter;
+
+    @PostConstruct
+    public void createRateLimiter() {
+        managementApiRateLimiter = RateLimiter.create(ixorTalkConfigProperties.getOrganization().getAuth0RoleSync().getReconciliationCallsPerSecond());
+    }
+
+    @Scheduled(
+            initialDelayString = "${ixortalk.organization.auth0-role-sync.reconciliation-initial-delay:PT10M}",
+            fixedDelayString = "${ixortalk.organization.auth0-role-sync.reconciliation-interval:PT6H}")
+    public void reconcile() {
+        int pageSize = ixorTalkConfigProperties.getOrganization().getAuth0RoleSync().getReconciliationPageSize();
+
+        List<Long> userIds;
+        Long afterId = 0L;
+        try {
+            Set<String> auth0RoleNames = newHashSet(managementApi(auth0Roles::getAllRoleNames));
+            do {
+                userIds = userRestResource.findAcceptedUserIdsInOrganizationAfter(afterId, of(0, pageSize));
+                if (!userIds.isEmpty()) {
+                    reconcile(userRestResource.findByIdIn(userIds), auth0RoleNames);
+                    afterId = userIds.get(userIds.size() - 1);
+                }
+            } while (userIds.size() == pageSize);
+        } catch (RuntimeException e) {
+            if (!isRateLimited(e)) {
+                throw e;
+            }
+            LOGGER.warn("Auth0 rate limit still exceeded, reconciliation stopped after user id " + afterId + ": " + e.getMessage());
+        }
+    }
+
+    private void reconcile(List<User> users, Set<String> auth0RoleNames) {
+        Map<Long, Set<String>> roleNamesByOrganizationId =
+                roleRestResource.findByOrganizationIdIn(users.stream().map(User::getOrganizationId).collect(toSet()))
+                        .stream()
+                        .collect(groupingBy(Role::getOrganizationId, mapping(Role::getRole, toSet())));
+
+        roleNamesByOrganizationId.values()
+                .stream()
+                .flatMap(Set::stream)
+                .filter(roleName -> !auth0RoleNames.contains(roleName))
+                .forEach(roleName -> {
+                    auth0RoleNames.add(roleName);
+                    auth0RoleSync.createRole(roleName);
+                });
+
+        users.forEach(user -> {
+            try {
+                reconcile(user, roleNamesByOrganizationId.getOrDefault(user.getOrganizationId(), emptySet()));
+            } catch (RuntimeException e) {
+                if (isRateLimited(e)) {
+                    throw e;
+                }
+                LOGGER.warn("Could not reconcile the Auth0 roles of " + user.getLogin() + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void reconcile(User user, Set<String> organizationRoleNames) {
+        if (!managementApi(() -> auth0Users.userExists(user.getLogin()))) {
+            return;
+        }
+
+        Set<String> linkedRoleNames = user.getRoles().stream().map(Role::getRole).collect(toSet());
+        Set<String> auth0UserRoleNames = managementApi(() -> auth0Roles.getUsersRoles(user.getLogin()));
+
+        Set<String> missing = newHashSet(difference(linkedRoleNames, auth0UserRoleNames));
+        if (!missing.isEmpty()) {
+            auth0RoleSync.assignRoles(user.getLogin(), missing);
+        }
+
+        Set<String> unlinked = newHashSet(difference(intersection(auth0UserRoleNames, organizationRoleNames), linkedRoleNames));
+        if (!unlinked.isEmpty()) {
+            auth0RoleSync.removeRolesIfUserExists(user.getLogin(), unlinked);
+        }
+    }
+
+    private <T> T managementApi(Supplier<T> call) {
+        IxorTalkConfigProperties.Organization.Auth0RoleSync config = ixorTalkConfigProperties.getOrganization().getAuth0RoleSync();
+        for (int attempt = 1; ; attempt++) {
+            managementApiRateLimiter.acquire();
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (!isRateLimited(e) || attempt >= config.getMaxAttempts()) {
+                    throw e;
+                }
+                Duration backoff = retryAfter(e).orElse(config.getReconciliationRateLimitBackoff().multipliedBy(1L << min(attempt - 1, 16)));
+                LOGGER.info("Auth0 rate limit exceeded, backing off for " + backoff);
+                sleep(backoff);
+            }
+        }
+    }
+
+    static boolean isRateLimited(Throwable throwable) {
+        return getCausalChain(throwable).stream().anyMatch(cause ->
+                (cause instanceof HttpStatusCodeException && ((HttpStatusCodeException) cause).getRawStatusCode() == TOO_MANY_REQUESTS.value())
+                        || (cause instanceof FeignException && ((FeignException) cause).status() == TOO_MANY_REQUESTS.value()));
+    }
+
+    private static Optional<Duration> retryAfter(Throwable throwable) {
+        return getCausalChain(throwable).stream()
+                .filter(HttpStatusCodeException.class::isInstance)
+                .map(cause -> ((HttpStatusCodeException) cause).getResponseHeaders())
+                .filter(Objects::nonNull)
+                .map(headers -> headers.getFirst(RETRY_AFTER))
+                .filter(retryAfter -> retryAfter != null && retryAfter.matches("\\d+"))
+                .map(retryAfter -> Duration.ofSeconds(parseLong(retryAfter)))
+                .findFirst();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            MILLISECONDS.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from the Auth0 rate limit", e);
+        }
+    }
+}
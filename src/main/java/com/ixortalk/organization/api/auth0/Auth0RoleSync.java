@@ -0,0 +1,211 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.intersection;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.Math.min;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.bindResource;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.getResource;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible;
+
+/**
+ * Records the role state that has to be pushed to Auth0 and applies it outside of the request.  Changes recorded in a
+ * transaction are only applied once it commits.  Pending changes are coalesced and applied in one batch, by a single
+ * background thread unless {@code ixortalk.organization.auth0-role-sync.asynchronous} is false.
+ * <p>
+ * Failed changes are queued again with an exponential backoff, up to {@code max-attempts} attempts.  Changes recorded
+ * in the meantime take precedence.  What still fails after that, or a failed deletion of a role that is created again
+ * in the same batch, is logged and left to {@link Auth0RoleReconciliation}.
+ */
+@Named
+public class Auth0RoleSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Auth0RoleSync.class);
+
+    @Inject
+    private Auth0Roles auth0Roles;
+
+    @Inject
+    private Auth0Users auth0Users;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    private final ScheduledExecutorService executor = newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auth0-role-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PendingRoleChanges pendingRoleChanges = new PendingRoleChanges();
+
+    public void createRole(String role) {
+        record(changes -> changes.createRole(role));
+    }
+
+    public void deleteRole(String role) {
+        record(changes -> changes.deleteRole(role));
+    }
+
+    public void assignRoles(String login, Set<String> roles) {
+        record(changes -> changes.assignRoles(login, roles, false));
+    }
+
+    public void assignRolesIfUserExists(String login, Set<String> roles) {
+        record(changes -> changes.assignRoles(login, roles, true));
+    }
+
+    /**
+     * Removes those of the given roles the user currently has in Auth0.
+     */
+    public void removeRolesIfUserExists(String login, Set<String> roles) {
+        record(changes -> changes.removeRoles(login, roles, true));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void record(Consumer<PendingRoleChanges> change) {
+        if (!isSynchronizationActive()) {
+            recordPending(newArrayList(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Consumer<PendingRoleChanges>> transactionChanges = (List<Consumer<PendingRoleChanges>>) getResource(this);
+        if (transactionChanges == null) {
+            List<Consumer<PendingRoleChanges>> changes = newArrayList();
+            bindResource(this, changes);
+            registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    recordPending(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    unbindResourceIfPossible(Auth0RoleSync.this);
+                }
+            });
+            transactionChanges = changes;
+        }
+        transactionChanges.add(change);
+    }
+
+    private void recordPending(List<Consumer<PendingRoleChanges>> changes) {
+        synchronized (this) {
+            changes.forEach(change -> change.accept(pendingRoleChanges));
+        }
+        if (ixorTalkConfigProperties.getOrganization().getAuth0RoleSync().isAsynchronous()) {
+            executor.execute(this::applyPendingChanges);
+        } else {
+            applyPendingChanges();
+        }
+    }
+
+    private void applyPendingChanges() {
+        PendingRoleChanges changes;
+        synchronized (this) {
+            if (pendingRoleChanges.isEmpty()) {
+                return;
+            }
+            changes = pendingRoleChanges;
+            pendingRoleChanges = new PendingRoleChanges();
+        }
+
+        changes.getRolesToRecreate().forEach(role ->
+                apply("delete role " + role, () -> auth0Roles.deleteRole(role), 0, null));
+        changes.getRolesToCreate().forEach(role ->
+                apply("create role " + role, () -> auth0Roles.addRole(role), changes.getFailedRoleAttempts(role), (pending, attempts) -> pending.retryCreateRole(role, attempts)));
+        changes.getUserRoleChanges().forEach((login, userRoleChanges) ->
+                apply("update roles of " + login, () -> applyUserRoleChanges(login, userRoleChanges), changes.getFailedUserAttempts(login), (pending, attempts) -> pending.retryUserRoleChanges(login, userRoleChanges, attempts)));
+        changes.getRolesToDelete().forEach(role ->
+                apply("delete role " + role, () -> auth0Roles.deleteRole(role), changes.getFailedRoleAttempts(role), (pending, attempts) -> pending.retryDeleteRole(role, attempts)));
+    }
+
+    private void applyUserRoleChanges(String login, PendingRoleChanges.UserRoleChanges changes) {
+        if (changes.isOnlyIfUserExists() && !auth0Users.userExists(login)) {
+            return;
+        }
+        if (!changes.getRolesToAssign().isEmpty()) {
+            auth0Roles.assignRolesToUser(login, changes.getRolesToAssign());
+        }
+        if (!changes.getRolesToRemove().isEmpty()) {
+            Set<String> rolesToRemove = newHashSet(intersection(changes.getRolesToRemove(), auth0Roles.getUsersRoles(login)));
+            if (!rolesToRemove.isEmpty()) {
+                auth0Roles.removeRolesFromUser(login, rolesToRemove);
+            }
+        }
+    }
+
+    private void apply(String description, Runnable change, int failedAttempts, BiConsumer<PendingRoleChanges, Integer> retry) {
+        try {
+            change.run();
+        } catch (RuntimeException e) {
+            IxorTalkConfigProperties.Organization.Auth0RoleSync config = ixorTalkConfigProperties.getOrganization().getAuth0RoleSync();
+            int attempts = failedAttempts + 1;
+            if (retry == null || attempts >= config.getMaxAttempts()) {
+                LOGGER.warn("Could not " + description + " in Auth0 after " + attempts + " attempt(s), left to the reconciliation: " + e.getMessage(), e);
+                return;
+            }
+
+            Duration delay = retryDelay(config, attempts);
+            LOGGER.warn("Could not " + description + " in Auth0, retrying in " + delay + ": " + e.getMessage());
+            synchronized (this) {
+                retry.accept(pendingRoleChanges, attempts);
+            }
+            executor.schedule(this::applyPendingChanges, delay.toMillis(), MILLISECONDS);
+        }
+    }
+
+    private static Duration retryDelay(IxorTalkConfigProperties.Organization.Auth0RoleSync config, int failedAttempts) {
+        Duration delay = config.getRetryDelay().multipliedBy(1L << min(failedAttempts - 1, 16));
+        return delay.compareTo(config.getMaxRetryDelay()) > 0 ? config.getMaxRetryDelay() : delay;
+    }
+}
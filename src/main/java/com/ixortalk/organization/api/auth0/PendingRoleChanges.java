@@ -0,0 +1,175 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.difference;
+import static com.google.common.collect.Sets.intersection;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+
+/**
+ * Coalesces recorded role changes: per login only the last assignment or removal of a role is kept, and a role created
+ * and then deleted in the same batch cancels out. A role deleted and then created again is kept as both operations, so
+ * the assignments of the deleted role don't carry over to the new one.
+ */
+class PendingRoleChanges {
+
+    private final Set<String> rolesToCreate = newLinkedHashSet();
+    private final Set<String> rolesToDelete = newLinkedHashSet();
+    private final Map<String, UserRoleChanges> userRoleChanges = newLinkedHashMap();
+    private final Map<String, Integer> failedRoleAttempts = newHashMap();
+    private final Map<String, Integer> failedUserAttempts = newHashMap();
+
+    void createRole(String role) {
+        failedRoleAttempts.remove(role);
+        rolesToCreate.add(role);
+    }
+
+    void deleteRole(String role) {
+        failedRoleAttempts.remove(role);
+        userRoleChanges.values().forEach(changes -> changes.forget(role));
+        if (!rolesToCreate.remove(role)) {
+            rolesToDelete.add(role);
+        }
+    }
+
+    void assignRoles(String login, Set<String> roles, boolean onlyIfUserExists) {
+        failedUserAttempts.remove(login);
+        userRoleChanges(login, onlyIfUserExists).assign(roles);
+    }
+
+    void removeRoles(String login, Set<String> roles, boolean onlyIfUserExists) {
+        failedUserAttempts.remove(login);
+        userRoleChanges(login, onlyIfUserExists).remove(roles);
+    }
+
+    /**
+     * Queues a failed role creation again, unless the role was created or deleted again in the meantime.
+     */
+    void retryCreateRole(String role, int failedAttempts) {
+        if (!rolesToCreate.contains(role) && !rolesToDelete.contains(role)) {
+            rolesToCreate.add(role);
+            failedRoleAttempts.put(role, failedAttempts);
+        }
+    }
+
+    /**
+     * Queues a failed role deletion again, unless the role was created or deleted again in the meantime.
+     */
+    void retryDeleteRole(String role, int failedAttempts) {
+        if (!rolesToCreate.contains(role) && !rolesToDelete.contains(role)) {
+            rolesToDelete.add(role);
+            failedRoleAttempts.put(role, failedAttempts);
+        }
+    }
+
+    /**
+     * Queues the failed changes of a login again, below the changes recorded for it in the meantime: a role that was
+     * assigned or removed again since keeps its latest change.
+     */
+    void retryUserRoleChanges(String login, UserRoleChanges failed, int failedAttempts) {
+        if (!userRoleChanges.containsKey(login)) {
+            failedUserAttempts.put(login, failedAttempts);
+        }
+        userRoleChanges(login, failed.onlyIfUserExists).retry(failed);
+    }
+
+    int getFailedRoleAttempts(String role) {
+        return failedRoleAttempts.getOrDefault(role, 0);
+    }
+
+    int getFailedUserAttempts(String login) {
+        return failedUserAttempts.getOrDefault(login, 0);
+    }
+
+    private UserRoleChanges userRoleChanges(String login, boolean onlyIfUserExists) {
+        UserRoleChanges changes = userRoleChanges.computeIfAbsent(login, key -> new UserRoleChanges());
+        changes.onlyIfUserExists &= onlyIfUserExists;
+        return changes;
+    }
+
+    boolean isEmpty() {
+        return rolesToCreate.isEmpty() && rolesToDelete.isEmpty() && userRoleChanges.isEmpty();
+    }
+
+    Set<String> getRolesToCreate() {
+        return rolesToCreate;
+    }
+
+    Set<String> getRolesToDelete() {
+        return newLinkedHashSet(difference(rolesToDelete, rolesToCreate));
+    }
+
+    Set<String> getRolesToRecreate() {
+        return newLinkedHashSet(intersection(rolesToDelete, rolesToCreate));
+    }
+
+    Map<String, UserRoleChanges> getUserRoleChanges() {
+        return userRoleChanges;
+    }
+
+    static class UserRoleChanges {
+
+        private final Set<String> rolesToAssign = newHashSet();
+        private final Set<String> rolesToRemove = newHashSet();
+        private boolean onlyIfUserExists = true;
+
+        private void assign(Set<String> roles) {
+            rolesToRemove.removeAll(roles);
+            rolesToAssign.addAll(roles);
+        }
+
+        private void remove(Set<String> roles) {
+            rolesToAssign.removeAll(roles);
+            rolesToRemove.addAll(roles);
+        }
+
+        private void retry(UserRoleChanges failed) {
+            failed.rolesToAssign.stream().filter(role -> !rolesToRemove.contains(role)).forEach(rolesToAssign::add);
+            failed.rolesToRemove.stream().filter(role -> !rolesToAssign.contains(role)).forEach(rolesToRemove::add);
+        }
+
+        private void forget(String role) {
+            rolesToAssign.remove(role);
+            rolesToRemove.remove(role);
+        }
+
+        Set<String> getRolesToAssign() {
+            return rolesToAssign;
+        }
+
+        Set<String> getRolesToRemove() {
+            return rolesToRemove;
+        }
+
+        boolean isOnlyIfUserExists() {
+            return onlyIfUserExists;
+        }
+    }
+}
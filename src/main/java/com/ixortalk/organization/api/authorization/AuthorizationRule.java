@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.authorization;
+
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.service.SecurityService;
+import com.querydsl.core.types.Predicate;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+
+import static com.ixortalk.organization.api.service.SecurityService.ROLE_ADMIN;
+
+/**
+ * The authorization rules of the repositories.  Apart from {@link #PERMIT_ALL}, admins are always granted access and
+ * the rule decides for everybody else.
+ */
+public enum AuthorizationRule {
+
+    PERMIT_ALL {
+        @Override
+        public boolean isGranted(Authentication authentication, SecurityService securityService, Object subject) {
+            return true;
+        }
+    },
+
+    ADMIN,
+
+    ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.isAdminOfOrganization((Organization) subject);
+        }
+    },
+
+    NEW_ORGANIZATION_OR_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return ((Organization) subject).getId() == null || securityService.isAdminOfOrganization((Organization) subject);
+        }
+    },
+
+    FOUND_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return AuthorizationRule.<Organization>found(subject).map(securityService::isAdminOfOrganization).orElse(false);
+        }
+    },
+
+    ORGANIZATION_ID_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.isAdminOfOrganizationWithId((Long) subject);
+        }
+    },
+
+    CURRENT_LOGIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.isCurrentUser((String) subject);
+        }
+    },
+
+    CURRENT_USER_OR_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.isCurrentUser((User) subject) || securityService.hasAdminAccess((User) subject);
+        }
+    },
+
+    NEW_USER_CURRENT_USER_OR_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return ((User) subject).getId() == null || CURRENT_USER_OR_ORGANIZATION_ADMIN.grants(securityService, subject);
+        }
+    },
+
+    /**
+     * Users without an organization can be read by everybody.
+     */
+    FOUND_USER_READ_ACCESS {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return AuthorizationRule.<User>found(subject).map(securityService::hasReadAccess).orElse(true);
+        }
+    },
+
+    USERS_OF_ADMINISTERED_ORGANIZATIONS {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.userForOrganizationsWithOrganizationAdminAccess((Predicate) subject);
+        }
+    },
+
+    ROLE_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.hasAdminAccess((Role) subject);
+        }
+    },
+
+    NEW_ROLE_OR_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return ((Role) subject).getId() == null || securityService.hasAdminAccess((Role) subject);
+        }
+    },
+
+    /**
+     * A role that isn't found is reported as not found rather than denied.
+     */
+    FOUND_ROLE_ORGANIZATION_ADMIN {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.hasAdminAccess(AuthorizationRule.<Role>found(subject));
+        }
+    },
+
+    ROLES_OF_ADMINISTERED_ORGANIZATIONS {
+        @Override
+        boolean grants(SecurityService securityService, Object subject) {
+            return securityService.roleForOrganizationsWithOrganizationAdminAccess((Predicate) subject);
+        }
+    };
+
+    public boolean isGranted(Authentication authentication, SecurityService securityService, Object subject) {
+        if (authentication == null) {
+            throw new AuthenticationCredentialsNotFoundException("An Authentication object was not found in the SecurityContext");
+        }
+        return isAdmin(authentication) || grants(securityService, subject);
+    }
+
+    boolean grants(SecurityService securityService, Object subject) {
+        return false;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream().anyMatch(authority -> ROLE_ADMIN.equals(authority.getAuthority()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<T> found(Object subject) {
+        return (Optional<T>) subject;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.authorization;
+
+import com.ixortalk.organization.api.service.SecurityService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.stream;
+import static java.util.Optional.ofNullable;
+import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
+import static org.springframework.security.core.context.SecurityContextHolder.getContext;
+
+/**
+ * Looks up the rules of a method once per repository, the way Spring Security looks up {@code @PreAuthorize}: on the
+ * method as declared by the repository or else on the repository interface, which also covers the methods inherited
+ * from the Spring Data interfaces.
+ */
+class AuthorizingMethodInterceptor implements MethodInterceptor {
+
+    private static final MethodAuthorization NOT_CHECKED = new MethodAuthorization(null, null);
+
+    private final Supplier<SecurityService> securityService;
+
+    private final Class<?> repositoryType;
+
+    private final Map<Method, MethodAuthorization> methodAuthorizations = new ConcurrentHashMap<>();
+
+    AuthorizingMethodInterceptor(Supplier<SecurityService> securityService, Class<?> repositoryType) {
+        this.securityService = securityService;
+        this.repositoryType = repositoryType;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodAuthorization methodAuthorization = methodAuthorizations.computeIfAbsent(invocation.getMethod(), this::methodAuthorization);
+        if (methodAuthorization == NOT_CHECKED) {
+            return invocation.proceed();
+        }
+
+        Authentication authentication = getContext().getAuthentication();
+        if (methodAuthorization.before != null) {
+            check(methodAuthorization.before.value(), authentication, invocation.getArguments()[methodAuthorization.before.argument()]);
+        }
+        Object result = invocation.proceed();
+        if (methodAuthorization.after != null) {
+            check(methodAuthorization.after.value(), authentication, result);
+        }
+        return result;
+    }
+
+    private void check(AuthorizationRule rule, Authentication authentication, Object subject) {
+        if (!rule.isGranted(authentication, securityService.get(), subject)) {
+            throw new AccessDeniedException("Access is denied");
+        }
+    }
+
+    private MethodAuthorization methodAuthorization(Method method) {
+        if (!method.getDeclaringClass().isAssignableFrom(repositoryType)) {
+            return NOT_CHECKED;
+        }
+        Method repositoryMethod = repositoryMethod(method);
+        Authorize before = ofNullable(findAnnotation(repositoryMethod, Authorize.class)).orElseGet(() -> findAnnotation(repositoryType, Authorize.class));
+        AuthorizeResult after = findAnnotation(repositoryMethod, AuthorizeResult.class);
+        return before == null && after == null ? NOT_CHECKED : new MethodAuthorization(before, after);
+    }
+
+    /**
+     * The repository's own declaration of a method, e.g. {@code findById(Long)} when {@code CrudRepository.findById(Object)}
+     * is invoked.
+     */
+    private Method repositoryMethod(Method method) {
+        return stream(repositoryType.getMethods())
+                .filter(candidate -> candidate.getName().equals(method.getName()))
+                .filter(candidate -> method.getDeclaringClass().isAssignableFrom(candidate.getDeclaringClass()))
+                .filter(candidate -> overrides(candidate, method))
+                .reduce((first, second) -> first.getDeclaringClass().isAssignableFrom(second.getDeclaringClass()) ? second : first)
+                .orElse(method);
+    }
+
+    private static boolean overrides(Method candidate, Method method) {
+        Class<?>[] candidateTypes = candidate.getParameterTypes();
+        Class<?>[] types = method.getParameterTypes();
+        if (candidateTypes.length != types.length) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (!types[i].isAssignableFrom(candidateTypes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class MethodAuthorization {
+
+        private final Authorize before;
+        private final AuthorizeResult after;
+
+        private MethodAuthorization(Authorize before, AuthorizeResult after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
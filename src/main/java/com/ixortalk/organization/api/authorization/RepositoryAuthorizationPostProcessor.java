@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.authorization;
+
+import com.ixortalk.organization.api.service.SecurityService;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Adds the {@link Authorize} and {@link AuthorizeResult} checks in front of the advice of the registered repositories.
+ */
+public class RepositoryAuthorizationPostProcessor implements BeanPostProcessor {
+
+    private final List<Class<?>> repositoryTypes = newArrayList();
+
+    private final Supplier<SecurityService> securityService;
+
+    public RepositoryAuthorizationPostProcessor(Supplier<SecurityService> securityService) {
+        this.securityService = securityService;
+    }
+
+    public RepositoryAuthorizationPostProcessor authorize(Class<?> repositoryType) {
+        repositoryTypes.add(repositoryType);
+        return this;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        repositoryTypes.stream()
+                .filter(type -> type.isInstance(bean))
+                .findFirst()
+                .ifPresent(type -> {
+                    if (!(bean instanceof Advised) || ((Advised) bean).isFrozen()) {
+                        throw new IllegalStateException("Expected repository " + beanName + " to be an unfrozen proxy");
+                    }
+                    ((Advised) bean).addAdvice(0, new AuthorizingMethodInterceptor(securityService, type));
+                });
+        return bean;
+    }
+}
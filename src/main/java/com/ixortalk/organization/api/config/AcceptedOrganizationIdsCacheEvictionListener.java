@@ -0,0 +1,146 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.service.AcceptedOrganizationIdsCache;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+/**
+ * Evicts the accepted organization ids of every login whose user is inserted, updated (accept, decline, status) or
+ * deleted, or is added to or removed from an organization.  Evicts right away and again once the transaction completes,
+ * so a concurrent lookup cannot put back the state from before the commit.
+ */
+class AcceptedOrganizationIdsCacheEvictionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String ORGANIZATION_USERS = Organization.class.getName() + ".users";
+
+    private final AcceptedOrganizationIdsCache acceptedOrganizationIdsCache;
+
+    AcceptedOrganizationIdsCacheEvictionListener(AcceptedOrganizationIdsCache acceptedOrganizationIdsCache) {
+        this.acceptedOrganizationIdsCache = acceptedOrganizationIdsCache;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User) {
+            evict(event.getSession(), newHashSet(((User) event.getEntity()).getLogin()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User) {
+            Set<String> logins = newHashSet(((User) event.getEntity()).getLogin());
+            if (event.getOldState() != null) {
+                logins.add((String) event.getOldState()[event.getPersister().getEntityMetamodel().getPropertyIndex("login")]);
+            }
+            evict(event.getSession(), logins);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            evict(event.getSession(), newHashSet(((User) event.getEntity()).getLogin()));
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void evictMembers(AbstractCollectionEvent event) {
+        PersistentCollection collection = event.getCollection();
+        if (!ORGANIZATION_USERS.equals(collection.getRole())) {
+            return;
+        }
+        if (!collection.wasInitialized()) {
+            evictAll(event.getSession());
+            return;
+        }
+        Set<String> logins = newHashSet();
+        addLogins(logins, (Collection<?>) collection);
+        Serializable snapshot = collection.getStoredSnapshot();
+        if (snapshot instanceof Collection) {
+            addLogins(logins, (Collection<?>) snapshot);
+        }
+        evict(event.getSession(), logins);
+    }
+
+    private static void addLogins(Set<String> logins, Collection<?> users) {
+        users.stream().filter(User.class::isInstance).map(user -> ((User) user).getLogin()).forEach(logins::add);
+    }
+
+    private void evict(EventSource session, Set<String> logins) {
+        logins.forEach(acceptedOrganizationIdsCache::evict);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completedSession) -> logins.forEach(acceptedOrganizationIdsCache::evict));
+    }
+
+    private void evictAll(EventSource session) {
+        acceptedOrganizationIdsCache.evictAll();
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completedSession) -> acceptedOrganizationIdsCache.evictAll());
+    }
+}
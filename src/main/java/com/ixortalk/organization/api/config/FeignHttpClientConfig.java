@@ -0,0 +1,190 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.FeignConfig.Http;
+import com.ixortalk.organization.api.metrics.UriPatternHttpRequestExecutor;
+import feign.Client;
+import feign.RequestInterceptor;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor.DEFAULT_URI_PATTERN_HEADER;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static com.ixortalk.organization.api.metrics.UriPatternHttpRequestExecutor.uriPatternInterceptor;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Configuration
+public class FeignHttpClientConfig {
+
+    public static final String IXORTALK_FEIGN_HTTP_BACKEND = "ixortalk.feign.http.backend";
+
+    private static final String FEIGN_POOL_NAME = "feign";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "apache", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager feignConnectionManager(IxorTalkConfigProperties ixorTalkConfigProperties) {
+        Http http = ixorTalkConfigProperties.getFeign().getHttp();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(http.getConnectionTimeToLive().toMillis(), MILLISECONDS);
+        connectionManager.setMaxTotal(http.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerRoute());
+        ixorTalkConfigProperties.getServer().values().stream()
+                .filter(microservice -> microservice.getUrl() != null && microservice.getMaxConnections() != null)
+                .forEach(microservice -> connectionManager.setMaxPerRoute(httpRoute(microservice.getUrl()), microservice.getMaxConnections()));
+        return connectionManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "apache", matchIfMissing = true)
+    public CloseableHttpClient feignHttpClient(PoolingHttpClientConnectionManager feignConnectionManager, IxorTalkConfigProperties ixorTalkConfigProperties, MeterRegistry meterRegistry) {
+        Http http = ixorTalkConfigProperties.getFeign().getHttp();
+
+        HttpClientBuilder httpClientBuilder =
+                HttpClientBuilder.create()
+                        .setConnectionManager(feignConnectionManager)
+                        .setKeepAliveStrategy(keepAliveStrategy(http.getKeepAlive()))
+                        .evictExpiredConnections()
+                        .evictIdleConnections(http.getKeepAlive().toMillis(), MILLISECONDS)
+                        .addInterceptorFirst(uriPatternInterceptor())
+                        .setRequestExecutor(new UriPatternHttpRequestExecutor(meterRegistry));
+        if (!http.isCompression()) {
+            httpClientBuilder.disableContentCompression();
+        }
+        return httpClientBuilder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "apache", matchIfMissing = true)
+    public PoolingHttpClientConnectionManagerMetricsBinder feignConnectionPoolMetrics(PoolingHttpClientConnectionManager feignConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(feignConnectionManager, FEIGN_POOL_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "apache", matchIfMissing = true)
+    public Client apacheFeignClient(CloseableHttpClient feignHttpClient) {
+        return new ApacheHttpClient(feignHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "okhttp")
+    public OkHttpClient feignOkHttpClient(IxorTalkConfigProperties ixorTalkConfigProperties, MeterRegistry meterRegistry) {
+        Http http = ixorTalkConfigProperties.getFeign().getHttp();
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(http.getMaxConnectionsPerRoute(), http.getKeepAlive().toMillis(), MILLISECONDS))
+                .protocols(http.isHttp2() ? asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : singletonList(Protocol.HTTP_1_1))
+                .eventListener(
+                        OkHttpMetricsEventListener.builder(meterRegistry, "okhttp.requests")
+                                .uriMapper(request -> ofNullable(request.header(DEFAULT_URI_PATTERN_HEADER)).orElse(UNKNOWN_URI))
+                                .build())
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder().removeHeader(DEFAULT_URI_PATTERN_HEADER).build()))
+                .build();
+    }
+
+    /**
+     * {@code StreamingImageServiceClient} streams uploads through Apache HttpClient whichever backend Feign uses, with
+     * OkHttp it gets a small client of its own rather than the Feign pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "okhttp")
+    public CloseableHttpClient streamingUploadHttpClient(IxorTalkConfigProperties ixorTalkConfigProperties) {
+        Http http = ixorTalkConfigProperties.getFeign().getHttp();
+
+        return HttpClientBuilder.create()
+                .setMaxConnTotal(http.getMaxConnectionsPerRoute())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .evictExpiredConnections()
+                .evictIdleConnections(http.getKeepAlive().toMillis(), MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "okhttp")
+    public Client okHttpFeignClient(OkHttpClient feignOkHttpClient) {
+        return new feign.okhttp.OkHttpClient(feignOkHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_FEIGN_HTTP_BACKEND, havingValue = "okhttp")
+    public MeterBinder feignOkHttpConnectionPoolMetrics(OkHttpClient feignOkHttpClient) {
+        return meterRegistry -> {
+            Gauge.builder("okhttp.pool.connections", feignOkHttpClient.connectionPool(), ConnectionPool::connectionCount)
+                    .tag("pool", FEIGN_POOL_NAME)
+                    .tag("state", "total")
+                    .register(meterRegistry);
+            Gauge.builder("okhttp.pool.connections", feignOkHttpClient.connectionPool(), ConnectionPool::idleConnectionCount)
+                    .tag("pool", FEIGN_POOL_NAME)
+                    .tag("state", "idle")
+                    .register(meterRegistry);
+        };
+    }
+
+    @Bean
+    public RequestInterceptor uriPatternRequestInterceptor() {
+        return template -> {
+            if (template.methodMetadata() != null) {
+                template.header(DEFAULT_URI_PATTERN_HEADER, template.methodMetadata().configKey());
+            }
+        };
+    }
+
+    static HttpRoute httpRoute(String url) {
+        URI uri = URI.create(url);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+        return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Duration defaultKeepAlive) {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : defaultKeepAlive.toMillis();
+        };
+    }
+}
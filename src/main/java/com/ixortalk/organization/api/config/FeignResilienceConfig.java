@@ -0,0 +1,69 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.feign.FeignClientResilience;
+import com.ixortalk.organization.api.feign.ResilientFeignClientPostProcessor;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FeignResilienceConfig {
+
+    @Bean
+    public static ResilientFeignClientPostProcessor resilientFeignClientPostProcessor(ObjectProvider<FeignClientResilience> feignClientResilience) {
+        return new ResilientFeignClientPostProcessor(feignClientResilience);
+    }
+
+    @Bean
+    public CircuitBreakerRegistry feignCircuitBreakerRegistry() {
+        return CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @Bean
+    public BulkheadRegistry feignBulkheadRegistry() {
+        return BulkheadRegistry.ofDefaults();
+    }
+
+    @Bean
+    public FeignClientResilience feignClientResilience(IxorTalkConfigProperties ixorTalkConfigProperties, CircuitBreakerRegistry feignCircuitBreakerRegistry, BulkheadRegistry feignBulkheadRegistry, MeterRegistry meterRegistry) {
+        return new FeignClientResilience(ixorTalkConfigProperties, feignCircuitBreakerRegistry, feignBulkheadRegistry, meterRegistry);
+    }
+
+    @Bean
+    public TaggedCircuitBreakerMetrics feignCircuitBreakerMetrics(CircuitBreakerRegistry feignCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(feignCircuitBreakerRegistry);
+    }
+
+    @Bean
+    public TaggedBulkheadMetrics feignBulkheadMetrics(BulkheadRegistry feignBulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(feignBulkheadRegistry);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import static java.util.Arrays.stream;
+import static org.hibernate.cache.jcache.ConfigSettings.CONFIG_URI;
+import static org.hibernate.cache.jcache.ConfigSettings.MISSING_CACHE_STRATEGY;
+import static org.hibernate.cache.jcache.ConfigSettings.PROVIDER;
+import static org.hibernate.cfg.AvailableSettings.AUTO_EVICT_COLLECTION_CACHE;
+import static org.hibernate.cfg.AvailableSettings.CACHE_REGION_FACTORY;
+import static org.hibernate.cfg.AvailableSettings.GENERATE_STATISTICS;
+import static org.hibernate.cfg.AvailableSettings.USE_QUERY_CACHE;
+import static org.hibernate.cfg.AvailableSettings.USE_SECOND_LEVEL_CACHE;
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_RECREATE;
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_REMOVE;
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_UPDATE;
+import static org.hibernate.event.spi.EventType.POST_DELETE;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String CACHE_HIT_RATIO_METRIC = "organization.cache.hit.ratio";
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Bean
+    public static HibernatePropertiesCustomizer secondLevelCacheHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(USE_QUERY_CACHE, true);
+            hibernateProperties.put(CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(AUTO_EVICT_COLLECTION_CACHE, true);
+            hibernateProperties.put(GENERATE_STATISTICS, true);
+            hibernateProperties.putIfAbsent(PROVIDER, EhcacheCachingProvider.class.getName());
+            hibernateProperties.putIfAbsent(CONFIG_URI, "ehcache.xml");
+            hibernateProperties.putIfAbsent(MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+
+    @PostConstruct
+    public void registerOrganizationMembershipCacheEviction() {
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        OrganizationMembershipCacheEvictionListener listener = new OrganizationMembershipCacheEvictionListener();
+        eventListenerRegistry.appendListeners(POST_COLLECTION_RECREATE, listener);
+        eventListenerRegistry.appendListeners(POST_COLLECTION_UPDATE, listener);
+        eventListenerRegistry.appendListeners(POST_COLLECTION_REMOVE, listener);
+        eventListenerRegistry.appendListeners(POST_DELETE, listener);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatioMetrics() {
+        return meterRegistry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stream(statistics.getSecondLevelCacheRegionNames())
+                    .forEach(region ->
+                            Gauge.builder(CACHE_HIT_RATIO_METRIC, statistics, value -> hitRatio(value.getCacheRegionStatistics(region)))
+                                    .tag("region", region)
+                                    .register(meterRegistry));
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+}
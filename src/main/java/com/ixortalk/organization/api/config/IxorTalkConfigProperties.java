@@ -25,9 +25,11 @@ package com.ixortalk.organization.api.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 
@@ -40,6 +42,8 @@ public class IxorTalkConfigProperties {
 
     private Organization organization = new Organization();
 
+    private FeignConfig feign = new FeignConfig();
+
     public Map<String, Microservice> getServer() {
         return server;
     }
@@ -52,6 +56,10 @@ public class IxorTalkConfigProperties {
         return organization;
     }
 
+    public FeignConfig getFeign() {
+        return feign;
+    }
+
     public LoadbalancerConfig getLoadbalancer() {
         return loadbalancer;
     }
@@ -66,6 +74,10 @@ public class IxorTalkConfigProperties {
 
         private Assetmgmt assetmgmt = new Assetmgmt();
 
+        private Auth0RoleSync auth0RoleSync = new Auth0RoleSync();
+
+        private RateLimiting rateLimit = new RateLimiting();
+
         public Api getApi() {
             return api;
         }
@@ -74,17 +86,60 @@ public class IxorTalkConfigProperties {
             return assetmgmt;
         }
 
+        public Auth0RoleSync getAuth0RoleSync() {
+            return auth0RoleSync;
+        }
+
+        public RateLimiting getRateLimit() {
+            return rateLimit;
+        }
+
+        public static class RateLimiting {
+
+            /**
+             * Addresses whose {@code X-Forwarded-For} is trusted, by default the private networks as in Tomcat's
+             * {@code RemoteIpValve}.
+             */
+            private String trustedProxies =
+                    "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|" +
+                            "192\\.168\\.\\d{1,3}\\.\\d{1,3}|" +
+                            "169\\.254\\.\\d{1,3}\\.\\d{1,3}|" +
+                            "127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|" +
+                            "172\\.(1[6-9]|2[0-9]|3[0-1])\\.\\d{1,3}\\.\\d{1,3}|" +
+                            "0:0:0:0:0:0:0:1|::1";
+
+            public String getTrustedProxies() {
+                return trustedProxies;
+            }
+
+            public void setTrustedProxies(String trustedProxies) {
+                this.trustedProxies = trustedProxies;
+            }
+        }
+
         public static class Api {
 
             private Mail mail = new Mail();
+            private Image image = new Image();
             private List<String> deviceInfoFields = newArrayList();
             private int acceptKeyMaxAgeInHours = 24;
+            private int inviteKeyMaxAgeInHours = 720;
+            private int acceptKeySweepBatchSize = 500;
             private String verifyEmailLandingPagePath = "/";
+            private VerifyEmail verifyEmail = new VerifyEmail();
+            private OrganizationInformation organizationInformation = new OrganizationInformation();
+            private AcceptedOrganizationIds acceptedOrganizationIds = new AcceptedOrganizationIds();
+            private Memberships memberships = new Memberships();
+            private Embed embed = new Embed();
 
             public Mail getMail() {
                 return mail;
             }
 
+            public Image getImage() {
+                return image;
+            }
+
             public List<String> getDeviceInfoFields() {
                 return deviceInfoFields;
             }
@@ -97,6 +152,22 @@ public class IxorTalkConfigProperties {
                 this.acceptKeyMaxAgeInHours = acceptKeyMaxAgeInHours;
             }
 
+            public int getInviteKeyMaxAgeInHours() {
+                return inviteKeyMaxAgeInHours;
+            }
+
+            public void setInviteKeyMaxAgeInHours(int inviteKeyMaxAgeInHours) {
+                this.inviteKeyMaxAgeInHours = inviteKeyMaxAgeInHours;
+            }
+
+            public int getAcceptKeySweepBatchSize() {
+                return acceptKeySweepBatchSize;
+            }
+
+            public void setAcceptKeySweepBatchSize(int acceptKeySweepBatchSize) {
+                this.acceptKeySweepBatchSize = acceptKeySweepBatchSize;
+            }
+
             public String getVerifyEmailLandingPagePath() {
                 return verifyEmailLandingPagePath;
             }
@@ -105,6 +176,137 @@ public class IxorTalkConfigProperties {
                 this.verifyEmailLandingPagePath = verifyEmailLandingPagePath;
             }
 
+            public VerifyEmail getVerifyEmail() {
+                return verifyEmail;
+            }
+
+            public OrganizationInformation getOrganizationInformation() {
+                return organizationInformation;
+            }
+
+            public AcceptedOrganizationIds getAcceptedOrganizationIds() {
+                return acceptedOrganizationIds;
+            }
+
+            public Memberships getMemberships() {
+                return memberships;
+            }
+
+            public Embed getEmbed() {
+                return embed;
+            }
+
+            public static class Embed {
+
+                private int threads = 8;
+                private int queueCapacity = 100;
+                private Duration timeout = Duration.ofSeconds(10);
+
+                public int getThreads() {
+                    return threads;
+                }
+
+                public void setThreads(int threads) {
+                    this.threads = threads;
+                }
+
+                public int getQueueCapacity() {
+                    return queueCapacity;
+                }
+
+                public void setQueueCapacity(int queueCapacity) {
+                    this.queueCapacity = queueCapacity;
+                }
+
+                public Duration getTimeout() {
+                    return timeout;
+                }
+
+                public void setTimeout(Duration timeout) {
+                    this.timeout = timeout;
+                }
+            }
+
+            public static class Memberships {
+
+                private int maxLogins = 500;
+
+                public int getMaxLogins() {
+                    return maxLogins;
+                }
+
+                public void setMaxLogins(int maxLogins) {
+                    this.maxLogins = maxLogins;
+                }
+            }
+
+            public static class AcceptedOrganizationIds {
+
+                private int cacheSize = 10000;
+                private Duration timeToLive = Duration.ofMinutes(5);
+
+                public int getCacheSize() {
+                    return cacheSize;
+                }
+
+                public void setCacheSize(int cacheSize) {
+                    this.cacheSize = cacheSize;
+                }
+
+                public Duration getTimeToLive() {
+                    return timeToLive;
+                }
+
+                public void setTimeToLive(Duration timeToLive) {
+                    this.timeToLive = timeToLive;
+                }
+            }
+
+            public static class OrganizationInformation {
+
+                private Duration maxAge = Duration.ofMinutes(1);
+                private int cacheSize = 1000;
+
+                public Duration getMaxAge() {
+                    return maxAge;
+                }
+
+                public void setMaxAge(Duration maxAge) {
+                    this.maxAge = maxAge;
+                }
+
+                public int getCacheSize() {
+                    return cacheSize;
+                }
+
+                public void setCacheSize(int cacheSize) {
+                    this.cacheSize = cacheSize;
+                }
+            }
+
+            public static class VerifyEmail {
+
+                private RateLimit perEmail = new RateLimit(5, Duration.ofMinutes(15));
+                private RateLimit perClientIp = new RateLimit(30, Duration.ofMinutes(15));
+                private Duration ticketDedupeWindow = Duration.ofMinutes(5);
+
+                public RateLimit getPerEmail() {
+                    return perEmail;
+                }
+
+                public RateLimit getPerClientIp() {
+                    return perClientIp;
+                }
+
+                public Duration getTicketDedupeWindow() {
+                    return ticketDedupeWindow;
+                }
+
+                public void setTicketDedupeWindow(Duration ticketDedupeWindow) {
+                    this.ticketDedupeWindow = ticketDedupeWindow;
+                }
+            }
+
             public static class Mail {
 
                 private String inviteMailSubjectKey = "invite";
@@ -153,6 +355,60 @@ public class IxorTalkConfigProperties {
                     this.defaultMailLanguageTag = defaultMailLanguageTag;
                 }
             }
+
+            public static class Image {
+
+                private List<String> allowedContentTypes = newArrayList("image/png", "image/jpeg", "image/gif");
+                private int maxWidth = 4096;
+                private int maxHeight = 4096;
+                private int thumbnailSize = 128;
+                private int mailSize = 480;
+                private float jpegQuality = 0.85f;
+
+                public List<String> getAllowedContentTypes() {
+                    return allowedContentTypes;
+                }
+
+                public int getMaxWidth() {
+                    return maxWidth;
+                }
+
+                public void setMaxWidth(int maxWidth) {
+                    this.maxWidth = maxWidth;
+                }
+
+                public int getMaxHeight() {
+                    return maxHeight;
+                }
+
+                public void setMaxHeight(int maxHeight) {
+                    this.maxHeight = maxHeight;
+                }
+
+                public int getThumbnailSize() {
+                    return thumbnailSize;
+                }
+
+                public void setThumbnailSize(int thumbnailSize) {
+                    this.thumbnailSize = thumbnailSize;
+                }
+
+                public int getMailSize() {
+                    return mailSize;
+                }
+
+                public void setMailSize(int mailSize) {
+                    this.mailSize = mailSize;
+                }
+
+                public float getJpegQuality() {
+                    return jpegQuality;
+                }
+
+                public void setJpegQuality(float jpegQuality) {
+                    this.jpegQuality = jpegQuality;
+                }
+            }
         }
 
         public static class Assetmgmt {
@@ -163,6 +419,312 @@ public class IxorTalkConfigProperties {
                 return allowedSaveCalls;
             }
         }
+
+        public static class Auth0RoleSync {
+
+            private boolean asynchronous = true;
+            private int maxAttempts = 5;
+            private Duration retryDelay = Duration.ofSeconds(5);
+            private Duration maxRetryDelay = Duration.ofMinutes(5);
+            private int reconciliationPageSize = 100;
+            private double reconciliationCallsPerSecond = 2;
+            private Duration reconciliationRateLimitBackoff = Duration.ofSeconds(10);
+
+            public boolean isAsynchronous() {
+                return asynchronous;
+            }
+
+            public void setAsynchronous(boolean asynchronous) {
+                this.asynchronous = asynchronous;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getRetryDelay() {
+                return retryDelay;
+            }
+
+            public void setRetryDelay(Duration retryDelay) {
+                this.retryDelay = retryDelay;
+            }
+
+            public Duration getMaxRetryDelay() {
+                return maxRetryDelay;
+            }
+
+            public void setMaxRetryDelay(Duration maxRetryDelay) {
+                this.maxRetryDelay = maxRetryDelay;
+            }
+
+            public int getReconciliationPageSize() {
+                return reconciliationPageSize;
+            }
+
+            public void setReconciliationPageSize(int reconciliationPageSize) {
+                this.reconciliationPageSize = reconciliationPageSize;
+            }
+
+            public double getReconciliationCallsPerSecond() {
+                return reconciliationCallsPerSecond;
+            }
+
+            public void setReconciliationCallsPerSecond(double reconciliationCallsPerSecond) {
+                this.reconciliationCallsPerSecond = reconciliationCallsPerSecond;
+            }
+
+            public Duration getReconciliationRateLimitBackoff() {
+                return reconciliationRateLimitBackoff;
+            }
+
+            public void setReconciliationRateLimitBackoff(Duration reconciliationRateLimitBackoff) {
+                this.reconciliationRateLimitBackoff = reconciliationRateLimitBackoff;
+            }
+        }
+    }
+
+    public static class FeignConfig {
+
+        public static final String DEFAULT_CLIENT = "default";
+
+        private Map<String, Resilience> resilience = newHashMap();
+
+        private Http http = new Http();
+
+        public Map<String, Resilience> getResilience() {
+            return resilience;
+        }
+
+        public Http getHttp() {
+            return http;
+        }
+
+        /**
+         * The settings of a client, each property resolved from the client itself, else the {@code default} client, else
+         * the built-in value.
+         */
+        public Resilience getResilience(String clientName) {
+            return Resilience.BUILT_IN
+                    .overriddenBy(resilience.get(DEFAULT_CLIENT))
+                    .overriddenBy(resilience.get(clientName));
+        }
+
+        public static class Http {
+
+            public enum Backend {
+                APACHE, OKHTTP
+            }
+
+            private Backend backend = Backend.APACHE;
+            private int maxConnections = 200;
+            private int maxConnectionsPerRoute = 50;
+            private Duration keepAlive = Duration.ofSeconds(30);
+            private Duration connectionTimeToLive = Duration.ofMinutes(5);
+            private boolean compression = true;
+            private boolean http2 = false;
+
+            public Backend getBackend() {
+                return backend;
+            }
+
+            public void setBackend(Backend backend) {
+                this.backend = backend;
+            }
+
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            public int getMaxConnectionsPerRoute() {
+                return maxConnectionsPerRoute;
+            }
+
+            public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+                this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            }
+
+            public Duration getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(Duration keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+
+            public Duration getConnectionTimeToLive() {
+                return connectionTimeToLive;
+            }
+
+            public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+                this.connectionTimeToLive = connectionTimeToLive;
+            }
+
+            public boolean isCompression() {
+                return compression;
+            }
+
+            public void setCompression(boolean compression) {
+                this.compression = compression;
+            }
+
+            public boolean isHttp2() {
+                return http2;
+            }
+
+            public void setHttp2(boolean http2) {
+                this.http2 = http2;
+            }
+        }
+
+        /**
+         * Every property left unset falls back to the {@code default} client and then to the built-in value, see
+         * {@link #getResilience(String)}.
+         */
+        public static class Resilience {
+
+            private static final Resilience BUILT_IN = new Resilience(20, Duration.ZERO, 50f, 20, 10, Duration.ofSeconds(30), 1000, Duration.ofHours(1));
+
+            private Integer maxConcurrentCalls;
+            private Duration maxWaitDuration;
+            private Float failureRateThreshold;
+            private Integer slidingWindowSize;
+            private Integer minimumNumberOfCalls;
+            private Duration waitDurationInOpenState;
+            private Integer staleResponseCacheSize;
+            private Duration staleResponseMaxAge;
+
+            public Resilience() {
+            }
+
+            private Resilience(Integer maxConcurrentCalls, Duration maxWaitDuration, Float failureRateThreshold, Integer slidingWindowSize, Integer minimumNumberOfCalls, Duration waitDurationInOpenState, Integer staleResponseCacheSize, Duration staleResponseMaxAge) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+                this.maxWaitDuration = maxWaitDuration;
+                this.failureRateThreshold = failureRateThreshold;
+                this.slidingWindowSize = slidingWindowSize;
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+                this.waitDurationInOpenState = waitDurationInOpenState;
+                this.staleResponseCacheSize = staleResponseCacheSize;
+                this.staleResponseMaxAge = staleResponseMaxAge;
+            }
+
+            private Resilience overriddenBy(Resilience overrides) {
+                if (overrides == null) {
+                    return this;
+                }
+                return new Resilience(
+                        firstNonNull(overrides.maxConcurrentCalls, maxConcurrentCalls),
+                        firstNonNull(overrides.maxWaitDuration, maxWaitDuration),
+                        firstNonNull(overrides.failureRateThreshold, failureRateThreshold),
+                        firstNonNull(overrides.slidingWindowSize, slidingWindowSize),
+                        firstNonNull(overrides.minimumNumberOfCalls, minimumNumberOfCalls),
+                        firstNonNull(overrides.waitDurationInOpenState, waitDurationInOpenState),
+                        firstNonNull(overrides.staleResponseCacheSize, staleResponseCacheSize),
+                        firstNonNull(overrides.staleResponseMaxAge, staleResponseMaxAge));
+            }
+
+            public Integer getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+
+            public Duration getMaxWaitDuration() {
+                return maxWaitDuration;
+            }
+
+            public void setMaxWaitDuration(Duration maxWaitDuration) {
+                this.maxWaitDuration = maxWaitDuration;
+            }
+
+            public Float getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(Float failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public Integer getSlidingWindowSize() {
+                return slidingWindowSize;
+            }
+
+            public void setSlidingWindowSize(Integer slidingWindowSize) {
+                this.slidingWindowSize = slidingWindowSize;
+            }
+
+            public Integer getMinimumNumberOfCalls() {
+                return minimumNumberOfCalls;
+            }
+
+            public void setMinimumNumberOfCalls(Integer minimumNumberOfCalls) {
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+            }
+
+            public Duration getWaitDurationInOpenState() {
+                return waitDurationInOpenState;
+            }
+
+            public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+                this.waitDurationInOpenState = waitDurationInOpenState;
+            }
+
+            public Integer getStaleResponseCacheSize() {
+                return staleResponseCacheSize;
+            }
+
+            public void setStaleResponseCacheSize(Integer staleResponseCacheSize) {
+                this.staleResponseCacheSize = staleResponseCacheSize;
+            }
+
+            public Duration getStaleResponseMaxAge() {
+                return staleResponseMaxAge;
+            }
+
+            public void setStaleResponseMaxAge(Duration staleResponseMaxAge) {
+                this.staleResponseMaxAge = staleResponseMaxAge;
+            }
+        }
+    }
+
+    public static class RateLimit {
+
+        private int capacity;
+        private Duration period;
+
+        public RateLimit() {
+        }
+
+        public RateLimit(int capacity, Duration period) {
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
     }
 
     public static class LoadbalancerConfig {
@@ -245,6 +807,7 @@ public class IxorTalkConfigProperties {
         private String contextPath;
         private String downloadPath;
         private String url;
+        private Integer maxConnections;
 
         public int getPort() {
             return port;
@@ -277,5 +840,13 @@ public class IxorTalkConfigProperties {
         public void setDownloadPath(String downloadPath) {
             this.downloadPath = downloadPath;
         }
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
     }
 }
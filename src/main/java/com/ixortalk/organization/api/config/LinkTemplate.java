@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes;
+import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentServletMapping;
+import static org.springframework.web.util.UriUtils.encodePathSegment;
+
+/**
+ * Link to a controller method, with the path of its request mapping resolved once instead of through a
+ * {@link org.springframework.hateoas.server.mvc.WebMvcLinkBuilder#methodOn(Class, Object...)} proxy for every link.
+ * The scheme, host and context path still come from the current request, which is looked up once per request.
+ */
+public class LinkTemplate {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{([^}/]+)}");
+    private static final AnnotationMappingDiscoverer MAPPING_DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".baseUri";
+
+    private final List<String> literals = newArrayList();
+    private final List<String> variables = newArrayList();
+
+    private LinkTemplate(String mapping) {
+        Matcher matcher = VARIABLE.matcher(mapping);
+        int start = 0;
+        while (matcher.find()) {
+            literals.add(mapping.substring(start, matcher.start()));
+            variables.add(matcher.group(1));
+            start = matcher.end();
+        }
+        literals.add(mapping.substring(start));
+    }
+
+    public static LinkTemplate linkTemplate(Class<?> controller, String methodName, Class<?>... parameterTypes) {
+        Method method = findMethod(controller, methodName, parameterTypes);
+        if (method == null) {
+            throw new IllegalArgumentException("No method " + methodName + " on " + controller.getName());
+        }
+        return new LinkTemplate(MAPPING_DISCOVERER.getMapping(controller, method));
+    }
+
+    /**
+     * Values are expanded in the order of the variables in the mapping, a {@code null} value leaves its variable in the link.
+     */
+    public Link expand(String rel, Object... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected values for " + variables + ", got " + values.length);
+        }
+        StringBuilder href = new StringBuilder(baseUri());
+        for (int i = 0; i < variables.size(); i++) {
+            href.append(literals.get(i));
+            if (values[i] == null) {
+                href.append('{').append(variables.get(i)).append('}');
+            } else {
+                href.append(encodePathSegment(values[i].toString(), UTF_8));
+            }
+        }
+        href.append(literals.get(variables.size()));
+        return new Link(href.toString(), rel);
+    }
+
+    private static String baseUri() {
+        RequestAttributes requestAttributes = currentRequestAttributes();
+        String baseUri = (String) requestAttributes.getAttribute(BASE_URI_ATTRIBUTE, SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = fromCurrentServletMapping().build().toUriString();
+            requestAttributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+}
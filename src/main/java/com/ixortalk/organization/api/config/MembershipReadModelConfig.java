@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.service.MembershipReadModel;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_RECREATE;
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_REMOVE;
+import static org.hibernate.event.spi.EventType.POST_COLLECTION_UPDATE;
+import static org.hibernate.event.spi.EventType.POST_DELETE;
+import static org.hibernate.event.spi.EventType.POST_INSERT;
+import static org.hibernate.event.spi.EventType.POST_UPDATE;
+
+@Configuration
+public class MembershipReadModelConfig {
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private MembershipReadModel membershipReadModel;
+
+    @PostConstruct
+    public void registerMembershipReadModelRefresh() {
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        MembershipReadModelListener listener = new MembershipReadModelListener(membershipReadModel);
+        eventListenerRegistry.appendListeners(POST_INSERT, listener);
+        eventListenerRegistry.appendListeners(POST_UPDATE, listener);
+        eventListenerRegistry.appendListeners(POST_DELETE, listener);
+        eventListenerRegistry.appendListeners(POST_COLLECTION_RECREATE, listener);
+        eventListenerRegistry.appendListeners(POST_COLLECTION_UPDATE, listener);
+        eventListenerRegistry.appendListeners(POST_COLLECTION_REMOVE, listener);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.service.MembershipReadModel;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+
+/**
+ * Keeps the {@link MembershipReadModel} in sync.  Collects the logins and organizations whose users or user roles change
+ * while flushing, and refreshes their memberships in the same transaction right before it commits.  Renamed roles are
+ * replaced in place rather than rebuilding their organization.
+ * <p>
+ * Listens to Hibernate rather than the repository event handlers, so accepting invites, admin changes and cascaded
+ * deletes, which don't go through Spring Data REST, are covered as well.  Deleted roles are unlinked with a bulk
+ * statement that bypasses these events, see {@link MembershipReadModel#removeRoleName(Long, String)}.
+ */
+class MembershipReadModelListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String ORGANIZATION_USERS = Organization.class.getName() + ".users";
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+
+    private final MembershipReadModel membershipReadModel;
+
+    private final Map<EventSource, PendingRefresh> pendingRefreshes = new ConcurrentHashMap<>();
+
+    MembershipReadModelListener(MembershipReadModel membershipReadModel) {
+        this.membershipReadModel = membershipReadModel;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User) {
+            pendingRefresh(event.getSession()).logins.add(((User) event.getEntity()).getLogin());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User) {
+            PendingRefresh pendingRefresh = pendingRefresh(event.getSession());
+            pendingRefresh.logins.add(((User) event.getEntity()).getLogin());
+            if (event.getOldState() != null) {
+                pendingRefresh.logins.add((String) event.getOldState()[event.getPersister().getEntityMetamodel().getPropertyIndex("login")]);
+            }
+        } else if (event.getEntity() instanceof Role) {
+            Role role = (Role) event.getEntity();
+            if (event.getOldState() == null) {
+                addOrganization(event.getSession(), role.getOrganizationId());
+                return;
+            }
+            String oldRoleName = (String) event.getOldState()[event.getPersister().getEntityMetamodel().getPropertyIndex("role")];
+            if (!Objects.equals(oldRoleName, role.getRole())) {
+                pendingRefresh(event.getSession()).roleRenames.add(new RoleRename(role.getId(), role.getOrganizationId(), oldRoleName, role.getRole()));
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            pendingRefresh(event.getSession()).logins.add(((User) event.getEntity()).getLogin());
+        } else if (event.getEntity() instanceof Organization) {
+            addOrganization(event.getSession(), ((Organization) event.getEntity()).getId());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        addMembers(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        addMembers(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        addMembers(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void addMembers(AbstractCollectionEvent event) {
+        PersistentCollection collection = event.getCollection();
+        if (USER_ROLES.equals(collection.getRole()) && event.getAffectedOwnerOrNull() instanceof User) {
+            pendingRefresh(event.getSession()).logins.add(((User) event.getAffectedOwnerOrNull()).getLogin());
+        } else if (ORGANIZATION_USERS.equals(collection.getRole())) {
+            if (!collection.wasInitialized()) {
+                addOrganization(event.getSession(), (Long) event.getAffectedOwnerIdOrNull());
+                return;
+            }
+            PendingRefresh pendingRefresh = pendingRefresh(event.getSession());
+            addLogins(pendingRefresh.logins, (Collection<?>) collection);
+            Serializable snapshot = collection.getStoredSnapshot();
+            if (snapshot instanceof Collection) {
+                addLogins(pendingRefresh.logins, (Collection<?>) snapshot);
+            }
+        }
+    }
+
+    private static void addLogins(Set<String> logins, Collection<?> users) {
+        users.stream().filter(User.class::isInstance).map(user -> ((User) user).getLogin()).forEach(logins::add);
+    }
+
+    private void addOrganization(EventSource session, Long organizationId) {
+        if (organizationId != null) {
+            pendingRefresh(session).organizationIds.add(organizationId);
+        }
+    }
+
+    private PendingRefresh pendingRefresh(EventSource session) {
+        return pendingRefreshes.computeIfAbsent(session, key -> {
+            PendingRefresh pendingRefresh = new PendingRefresh(key);
+            key.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) pendingRefresh);
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) pendingRefresh);
+            return pendingRefresh;
+        });
+    }
+
+    private class PendingRefresh implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final EventSource session;
+        private final Set<String> logins = newHashSet();
+        private final Set<Long> organizationIds = newHashSet();
+        private final List<RoleRename> roleRenames = newArrayList();
+
+        private PendingRefresh(EventSource session) {
+            this.session = session;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor completingSession) {
+            pendingRefreshes.remove(session);
+            roleRenames.forEach(roleRename -> membershipReadModel.renameRole(roleRename.roleId, roleRename.organizationId, roleRename.oldRoleName, roleRename.newRoleName));
+            membershipReadModel.refresh(logins, organizationIds);
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor completedSession) {
+            pendingRefreshes.remove(session);
+        }
+    }
+
+    private static class RoleRename {
+
+        private final Long roleId;
+        private final Long organizationId;
+        private final String oldRoleName;
+        private final String newRoleName;
+
+        private RoleRename(Long roleId, Long organizationId, String oldRoleName, String newRoleName) {
+            this.roleId = roleId;
+            this.organizationId = organizationId;
+            this.oldRoleName = oldRoleName;
+            this.newRoleName = newRoleName;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.metrics.MethodMetricsPostProcessor;
+import com.ixortalk.organization.api.metrics.MethodTimer;
+import com.ixortalk.organization.api.rest.OrganizationRestResource;
+import com.ixortalk.organization.api.rest.RoleRestResource;
+import com.ixortalk.organization.api.rest.UserRestResource;
+import com.ixortalk.organization.api.service.SecurityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MethodMetricsConfig {
+
+    public static final String SECURITY_METRIC = "organization.security";
+    public static final String REPOSITORY_METRIC = "organization.repository";
+    public static final String AUTH0_METRIC = "organization.auth0";
+
+    @Bean
+    public static MethodMetricsPostProcessor methodMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        MethodTimer repositoryTimer = new MethodTimer(meterRegistry::getObject, REPOSITORY_METRIC);
+        return new MethodMetricsPostProcessor()
+                .time(SecurityService.class, new MethodTimer(meterRegistry::getObject, SECURITY_METRIC).withResultOutcome(MethodMetricsConfig::securityOutcome))
+                .time(OrganizationRestResource.class, repositoryTimer)
+                .time(UserRestResource.class, repositoryTimer)
+                .time(RoleRestResource.class, repositoryTimer);
+    }
+
+    @Bean
+    public static MethodMetricsPostProcessor auth0MethodMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        MethodTimer auth0Timer = new MethodTimer(meterRegistry::getObject, AUTH0_METRIC);
+        return new MethodMetricsPostProcessor()
+                .time(Auth0Users.class, auth0Timer)
+                .time(Auth0Roles.class, auth0Timer);
+    }
+
+    private static String securityOutcome(Object result) {
+        if (result instanceof Boolean) {
+            return (Boolean) result ? "GRANTED" : "DENIED";
+        }
+        return MethodTimer.OUTCOME_SUCCESS;
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.domain.User;
+import org.hibernate.Cache;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Users and roles map the organization join column read-only, so their cached state does not change when they are
+ * added to or removed from an organization.  Evicts them once the transaction completes, after Hibernate has put the
+ * inserted or updated state in the cache.
+ * <p>
+ * Deleted users and roles are not always removed from the organization's collection first, so the cached collection
+ * of their organization is evicted as well.
+ */
+class OrganizationMembershipCacheEvictionListener implements PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener, PostDeleteEventListener {
+
+    private static final String ORGANIZATION_USERS = Organization.class.getName() + ".users";
+    private static final String ORGANIZATION_ROLES = Organization.class.getName() + ".roles";
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+    private static final String ROLE_USERS = Role.class.getName() + ".users";
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictMembers(event);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            Long organizationId = ((User) event.getEntity()).getOrganizationId();
+            event.getSession().getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, session) -> evictCollections(session.getFactory().getCache(), ORGANIZATION_USERS, organizationId, ROLE_USERS));
+        } else if (event.getEntity() instanceof Role) {
+            Long organizationId = ((Role) event.getEntity()).getOrganizationId();
+            event.getSession().getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, session) -> evictCollections(session.getFactory().getCache(), ORGANIZATION_ROLES, organizationId, USER_ROLES));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private static void evictMembers(AbstractCollectionEvent event) {
+        if (!(event.getAffectedOwnerOrNull() instanceof Organization)) {
+            return;
+        }
+        List<Object> members = members(event.getCollection());
+        if (!members.isEmpty()) {
+            event.getSession().getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, session) -> members.forEach(member -> evict(session.getFactory().getCache(), member)));
+        }
+    }
+
+    private static List<Object> members(PersistentCollection collection) {
+        List<Object> members = newArrayList();
+        if (collection.wasInitialized() && collection instanceof Collection) {
+            members.addAll((Collection<?>) collection);
+        }
+        Serializable snapshot = collection.getStoredSnapshot();
+        if (snapshot instanceof Collection) {
+            members.addAll((Collection<?>) snapshot);
+        }
+        return members;
+    }
+
+    private static void evict(Cache cache, Object member) {
+        if (member instanceof User) {
+            cache.evictEntityData(User.class, ((User) member).getId());
+        } else if (member instanceof Role) {
+            cache.evictEntityData(Role.class, ((Role) member).getId());
+        }
+    }
+
+    private static void evictCollections(Cache cache, String organizationCollection, Long organizationId, String linkedCollections) {
+        if (organizationId != null) {
+            cache.evictCollectionData(organizationCollection, organizationId);
+        }
+        cache.evictCollectionData(linkedCollections);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.config;
+
+import com.ixortalk.organization.api.ratelimit.JdbcTokenBucketStore;
+import com.ixortalk.organization.api.ratelimit.LocalTokenBucketStore;
+import com.ixortalk.organization.api.ratelimit.TokenBucketStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class RateLimitConfig {
+
+    public static final String IXORTALK_ORGANIZATION_RATE_LIMIT_STORE = "ixortalk.organization.rate-limit.store";
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_ORGANIZATION_RATE_LIMIT_STORE, havingValue = "local", matchIfMissing = true)
+    public TokenBucketStore localTokenBucketStore() {
+        return new LocalTokenBucketStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IXORTALK_ORGANIZATION_RATE_LIMIT_STORE, havingValue = "jdbc")
+    public TokenBucketStore jdbcTokenBucketStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new JdbcTokenBucketStore(jdbcTemplate, transactionManager);
+    }
+}
@@ -29,9 +29,12 @@ import com.ixortalk.organization.api.domain.User;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
 import org.springframework.data.rest.core.event.ValidatingRepositoryEventListener;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.validation.Validator;
 
 import javax.inject.Inject;
+import java.util.List;
 
 import static org.springframework.data.rest.core.mapping.RepositoryDetectionStrategy.RepositoryDetectionStrategies.ANNOTATED;
 
@@ -54,4 +57,10 @@ public class RepositoryRestConfigurer implements org.springframework.data.rest.w
         validatingListener.addValidator("beforeCreate", validator);
         validatingListener.addValidator("beforeSave", validator);
     }
+
+    @Override
+    public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+        // pre-rendered responses, see OrganizationInformationController
+        messageConverters.add(new ByteArrayHttpMessageConverter());
+    }
 }
@@ -27,33 +27,48 @@ import com.ixortalk.organization.api.domain.EnhancedUserProjection;
 import com.ixortalk.organization.api.domain.Organization;
 import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.metrics.MethodTimer;
 import com.ixortalk.organization.api.rest.*;
 import com.ixortalk.organization.api.service.ImageMethodsService;
+import com.ixortalk.organization.api.service.OrganizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
 import org.springframework.data.rest.webmvc.support.RepositoryEntityLinks;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelProcessor;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.inject.Inject;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static com.google.common.collect.Maps.newHashMap;
+import static com.ixortalk.organization.api.config.LinkTemplate.linkTemplate;
 import static com.ixortalk.organization.api.config.RepresentationModelConfig.VarsBuilder.linkVars;
 import static java.util.Optional.ofNullable;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Configuration
 public class RepresentationModelConfig {
 
+    private static final LinkTemplate ADMIN_USERS = linkTemplate(OrganizationRestController.class, "getAdminUsers", Long.class);
+    private static final LinkTemplate DEVICES = linkTemplate(OrganizationDevicesRestController.class, "getDevices", Long.class);
+    private static final LinkTemplate ORGANIZATION_INFORMATION = linkTemplate(OrganizationInformationController.class, "findOne", Long.class, PersistentEntityResourceAssembler.class, WebRequest.class);
+    private static final LinkTemplate ACCEPT_INVITE = linkTemplate(UserRestController.class, "acceptInvite", Long.class);
+    private static final LinkTemplate DECLINE_INVITE = linkTemplate(UserRestController.class, "declineInvite", Long.class);
+    private static final LinkTemplate RESEND_INVITE = linkTemplate(UserRestController.class, "resendInvite", Long.class);
+    private static final LinkTemplate PROMOTE_TO_ADMIN = linkTemplate(OrganizationAdminController.class, "promoteToAdmin", Long.class, Long.class);
+    private static final LinkTemplate REMOVE_ADMIN_RIGHTS = linkTemplate(OrganizationAdminController.class, "removeAdminRights", Long.class, Long.class);
+
     @Inject
     private RepositoryEntityLinks repositoryEntityLinks;
 
     @Inject
-    private OrganizationRestResource organizationRestResource;
+    private OrganizationService organizationService;
 
     @Inject
     private UserRestResource userRestResource;
@@ -61,59 +76,65 @@ public class RepresentationModelConfig {
     @Inject
     private ImageMethodsService imageMethodsService;
 
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private final MethodTimer processorTimer = new MethodTimer(() -> meterRegistry, "organization.representation");
+
     @Bean
     public RepresentationModelProcessor<EntityModel<Organization>> organizationRepresentationModel() {
         // noinspection Convert2Lambda
         return new RepresentationModelProcessor<EntityModel<Organization>>() {
             @Override
             public EntityModel<Organization> process(EntityModel<Organization> resource) {
-                resource.add(
-                        repositoryEntityLinks.linkForItemResource(Organization.class, resource.getContent().getId())
-                                .slash("users?projection=" + EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME)
-                                .withRel("enhancedUsers"));
-                resource.add(
-                        WebMvcLinkBuilder.linkTo(
-                                methodOn(OrganizationRestController.class).getAdminUsers(resource.getContent().getId()))
-                                .withRel("adminUsers"));
-                resource.add(
-                        linkTo(
-                                methodOn(OrganizationDevicesRestController.class)
-                                        .getDevices(resource.getContent().getId()))
-                                .withRel("devices"));
-                resource.add(
-                        repositoryEntityLinks.linksToSearchResources(User.class)
-                                .getLink("findByOrganizationId")
-                                .get()
-                                .expand(
-                                        linkVars()
-                                                .with("organizationId", resource.getContent().getId())
-                                                .with("projection", EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME)
-                                                .build())
-                                .withRel("findUsersByOrganization"));
-                resource.add(
-                        repositoryEntityLinks.linksToSearchResources(Role.class)
-                                .getLink("findByOrganizationId")
-                                .get()
-                                .expand(
-                                        linkVars()
-                                                .with("organizationId", resource.getContent().getId())
-                                                .build())
-                                .withRel("findRolesByOrganization"));
-                resource.add(
-                        WebMvcLinkBuilder.linkTo(
-                                methodOn(OrganizationInformationController.class)
-                                        .findOne(resource.getContent().getId(), null))
-                                .withRel("organizationInformation"));
-
-                ofNullable(resource.getContent().getImage())
-                        .ifPresent(image -> resource.add(new Link(imageMethodsService.constructImageLink(image), "image")));
-                ofNullable(resource.getContent().getLogo())
-                        .ifPresent(logo -> resource.add(new Link(imageMethodsService.constructImageLink(logo), "logo")));
-                return resource;
+                return timed("organization", () -> addOrganizationLinks(resource));
             }
         };
     }
 
+    private EntityModel<Organization> addOrganizationLinks(EntityModel<Organization> resource) {
+        resource.add(
+                repositoryEntityLinks.linkForItemResource(Organization.class, resource.getContent().getId())
+                        .slash("users?projection=" + EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME)
+                        .withRel("enhancedUsers"));
+        resource.add(ADMIN_USERS.expand("adminUsers", resource.getContent().getId()));
+        resource.add(DEVICES.expand("devices", resource.getContent().getId()));
+        resource.add(
+                repositoryEntityLinks.linksToSearchResources(User.class)
+                        .getLink("findByOrganizationId")
+                        .get()
+                        .expand(
+                                linkVars()
+                                        .with("organizationId", resource.getContent().getId())
+                                        .with("projection", EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME)
+                                        .build())
+                        .withRel("findUsersByOrganization"));
+        resource.add(
+                repositoryEntityLinks.linksToSearchResources(Role.class)
+                        .getLink("findByOrganizationId")
+                        .get()
+                        .expand(
+                                linkVars()
+                                        .with("organizationId", resource.getContent().getId())
+                                        .build())
+                        .withRel("findRolesByOrganization"));
+        resource.add(ORGANIZATION_INFORMATION.expand("organizationInformation", resource.getContent().getId()));
+
+        ofNullable(resource.getContent().getImage())
+                .ifPresent(image -> resource.add(new Link(imageMethodsService.constructImageLink(image), "image")));
+        ofNullable(resource.getContent().getLogo())
+                .ifPresent(logo -> resource.add(new Link(imageMethodsService.constructImageLink(logo), "logo")));
+        ofNullable(resource.getContent().getImageThumbnail())
+                .ifPresent(imageThumbnail -> resource.add(new Link(imageMethodsService.constructImageLink(imageThumbnail), "imageThumbnail")));
+        ofNullable(resource.getContent().getImageMail())
+                .ifPresent(imageMail -> resource.add(new Link(imageMethodsService.constructImageLink(imageMail), "imageMail")));
+        ofNullable(resource.getContent().getLogoThumbnail())
+                .ifPresent(logoThumbnail -> resource.add(new Link(imageMethodsService.constructImageLink(logoThumbnail), "logoThumbnail")));
+        ofNullable(resource.getContent().getLogoMail())
+                .ifPresent(logoMail -> resource.add(new Link(imageMethodsService.constructImageLink(logoMail), "logoMail")));
+        return resource;
+    }
+
     @Bean
     public RepresentationModelProcessor<EntityModel<User>> userRepresentationModel() {
         // noinspection Convert2Lambda
@@ -121,9 +142,11 @@ public class RepresentationModelConfig {
 
             @Override
             public EntityModel<User> process(EntityModel<User> entityModel) {
-                addUserLinks(entityModel, entityModel.getContent());
-                entityModel.add(entityModel.getLink("user").get().expand(EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME).withRel(EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME));
-                return entityModel;
+                return timed("user", () -> {
+                    addUserLinks(entityModel, entityModel.getContent());
+                    entityModel.add(entityModel.getLink("user").get().expand(EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME).withRel(EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME));
+                    return entityModel;
+                });
             }
         };
     }
@@ -134,54 +157,42 @@ public class RepresentationModelConfig {
         return new RepresentationModelProcessor<EntityModel<EnhancedUserProjection>>() {
             @Override
             public EntityModel<EnhancedUserProjection> process(EntityModel<EnhancedUserProjection> resource) {
-                addUserLinks(resource, userRestResource.findOneById(resource.getContent().getId()).get());
-                return resource;
+                return timed("enhancedUser", () -> {
+                    addUserLinks(resource, user(resource.getContent()));
+                    return resource;
+                });
             }
         };
     }
 
-    private void addUserLinks(EntityModel<?> resource, User user) {
-        resource.add(
-                WebMvcLinkBuilder.linkTo(
-                        methodOn(UserRestController.class)
-                                .acceptInvite(user.getId()))
-                        .withRel("accept-invite"));
+    /**
+     * Projections made by Spring Data REST wrap the user they were made of, there is no need to look it up again.
+     */
+    private User user(EnhancedUserProjection projection) {
+        if (projection instanceof TargetAware) {
+            return (User) ((TargetAware) projection).getTarget();
+        }
+        return userRestResource.findOneById(projection.getId()).get();
+    }
 
-        resource.add(
-                WebMvcLinkBuilder.linkTo(
-                        methodOn(UserRestController.class)
-                                .declineInvite(user.getId()))
-                        .withRel("decline-invite"));
+    private <T> T timed(String processor, Supplier<T> process) {
+        return processorTimer.record(Tags.of("processor", processor), process);
+    }
 
-        resource.add(
-                WebMvcLinkBuilder.linkTo(
-                        methodOn(UserRestController.class)
-                                .resendInvite(user.getId()))
-                        .withRel("resend-invite"));
+    private void addUserLinks(EntityModel<?> resource, User user) {
+        Long organizationId = organizationService.getOrganizationId(user).orElse(null);
+
+        resource.add(ACCEPT_INVITE.expand("accept-invite", user.getId()));
+        resource.add(DECLINE_INVITE.expand("decline-invite", user.getId()));
+        resource.add(RESEND_INVITE.expand("resend-invite", user.getId()));
 
         //deprecated link
-        resource.add(
-                linkTo(
-                        methodOn(OrganizationAdminController.class)
-                                .promoteToAdmin(organizationRestResource.findByUsers(user).map(Organization::getId).orElse(null), user.getId()))
-                        .withRel("assignAdminRole"));
+        resource.add(PROMOTE_TO_ADMIN.expand("assignAdminRole", organizationId, user.getId()));
         //deprecated link
-        resource.add(
-                linkTo(
-                        methodOn(OrganizationAdminController.class)
-                                .removeAdminRights(organizationRestResource.findByUsers(user).map(Organization::getId).orElse(null), user.getId()))
-                        .withRel("removeAdminRole"));
+        resource.add(REMOVE_ADMIN_RIGHTS.expand("removeAdminRole", organizationId, user.getId()));
 
-        resource.add(
-                linkTo(
-                        methodOn(OrganizationAdminController.class)
-                                .promoteToAdmin(organizationRestResource.findByUsers(user).map(Organization::getId).orElse(null), user.getId()))
-                        .withRel("promoteToAdmin"));
-        resource.add(
-                linkTo(
-                        methodOn(OrganizationAdminController.class)
-                                .removeAdminRights(organizationRestResource.findByUsers(user).map(Organization::getId).orElse(null), user.getId()))
-                        .withRel("removeAdminRights"));
+        resource.add(PROMOTE_TO_ADMIN.expand("promoteToAdmin", organizationId, user.getId()));
+        resource.add(REMOVE_ADMIN_RIGHTS.expand("removeAdminRights", organizationId, user.getId()));
     }
 
     static class VarsBuilder {
@@ -24,18 +24,39 @@
 package com.ixortalk.organization.api.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.OptimisticLock;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static java.util.stream.Collectors.toSet;
+import static com.ixortalk.organization.api.domain.ImageRendition.MAIL;
+import static com.ixortalk.organization.api.domain.ImageRendition.THUMBNAIL;
+import static java.util.Collections.emptyMap;
 import static javax.persistence.CascadeType.ALL;
+import static org.hibernate.Hibernate.isInitialized;
+import static org.hibernate.annotations.LazyCollectionOption.EXTRA;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = Organization.WITH_USERS_GRAPH, attributeNodes = @NamedAttributeNode("users"))
 public class Organization {
+
+    /**
+     * Adds the users, for the representations that list the organization's admins.
+     */
+    public static final String WITH_USERS_GRAPH = "Organization.withUsers";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -45,10 +66,16 @@ public class Organization {
 
     @OneToMany(cascade = ALL)
     @JoinColumn(name = "organization_id")
+    @LazyCollection(EXTRA)
+    @OptimisticLock(excluded = true)
+    @Cache(usage = READ_WRITE)
     private List<User> users = newArrayList();
 
     @OneToMany(cascade = ALL)
     @JoinColumn(name = "organization_id")
+    @LazyCollection(EXTRA)
+    @OptimisticLock(excluded = true)
+    @Cache(usage = READ_WRITE)
     private List<Role> roles = newArrayList();
 
     @Embedded
@@ -63,6 +90,22 @@ public class Organization {
 
     private String logo;
 
+    private String imageThumbnail;
+
+    private String imageMail;
+
+    private String logoThumbnail;
+
+    private String logoMail;
+
+    @Version
+    @JsonIgnore
+    private long version;
+
+    @LastModifiedDate
+    @JsonIgnore
+    private Instant lastModifiedDate;
+
     private Organization() {
     }
 
@@ -79,6 +122,16 @@ public class Organization {
         return name;
     }
 
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
     public Address getAddress() {
         return address;
     }
@@ -96,28 +149,68 @@ public class Organization {
     }
 
     public Organization setImage(String image) {
+        return setImage(image, emptyMap());
+    }
+
+    public Organization setImage(String image, Map<ImageRendition, String> renditions) {
         this.image = image;
+        this.imageThumbnail = renditions.get(THUMBNAIL);
+        this.imageMail = renditions.get(MAIL);
         return this;
     }
 
+    @JsonIgnore
+    public String getImageThumbnail() {
+        return imageThumbnail;
+    }
+
+    @JsonIgnore
+    public String getImageMail() {
+        return imageMail;
+    }
+
     public String getLogo() {
         return logo;
     }
 
+    @JsonIgnore
+    public String getLogoThumbnail() {
+        return logoThumbnail;
+    }
+
+    @JsonIgnore
+    public String getLogoMail() {
+        return logoMail;
+    }
+
     public boolean containsUser(User user) {
-        return this.users.contains(user);
+        return isMember(user.getOrganizationId(), this.users, user);
     }
 
     public boolean containsRole(Role role) {
-        return this.roles.contains(role);
+        return isMember(role.getOrganizationId(), this.roles, role);
     }
 
-    public Set<String> getMatchingRoles(Set<String> roles) {
-        return this.roles.stream().filter(role -> roles.contains(role.getRole())).map(Role::getRole).collect(toSet());
+    /**
+     * Persisted members carry the organization's id, which answers membership without touching the collection.  Members
+     * that are not flushed yet fall back to the (extra lazy) collection.
+     */
+    private <T> boolean isMember(Long organizationId, List<T> members, T member) {
+        return organizationId != null ? organizationId.equals(this.id) : members.contains(member);
     }
 
+    /**
+     * Only updates the collection when it is already loaded: the membership is stored on the user, so callers deleting
+     * the user do not need the other members.
+     */
     public boolean removeUser(User user) {
-        return this.users.remove(user);
+        if (!containsUser(user)) {
+            return false;
+        }
+        if (isInitialized(this.users)) {
+            this.users.remove(user);
+        }
+        return true;
     }
 
     @JsonIgnore
@@ -131,7 +224,13 @@ public class Organization {
     }
 
     public Organization setLogo(String logo) {
+        return setLogo(logo, emptyMap());
+    }
+
+    public Organization setLogo(String logo, Map<ImageRendition, String> renditions) {
         this.logo = logo;
+        this.logoThumbnail = renditions.get(THUMBNAIL);
+        this.logoMail = renditions.get(MAIL);
         return this;
     }
 
@@ -23,15 +23,24 @@
  */
 package com.ixortalk.organization.api.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Cache;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 import static java.lang.Math.min;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 @Entity
 @Table(name = "org_role")
+@Cacheable
+@Cache(usage = READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
 public class Role {
     private static final String ROLE_PREFIX = "ROLE_";
     private static final int ROLE_MAX_LENGTH = 190;
@@ -48,11 +57,20 @@ public class Role {
     private String role;
 
     @ManyToMany(mappedBy = "roles")
+    @Cache(usage = READ_WRITE)
     private List<User> users;
 
     @Column(name = "organization_id", updatable = false, insertable = false)
     private Long organizationId;
 
+    @Version
+    @JsonIgnore
+    private long version;
+
+    @LastModifiedDate
+    @JsonIgnore
+    private Instant lastModifiedDate;
+
     private Role() {
     }
 
@@ -68,6 +86,11 @@ public class Role {
         return role;
     }
 
+    @JsonIgnore
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
     public Role assignRoleName(Organization organization) {
         this.role = generateRoleName(organization, this);
         return this;
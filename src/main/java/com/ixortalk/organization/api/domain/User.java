@@ -26,7 +26,12 @@ package com.ixortalk.organization.api.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ixortalk.organization.api.domain.validation.LanguageISO639;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.OptimisticLock;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import java.time.Instant;
@@ -36,11 +41,18 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.ixortalk.organization.api.domain.Status.*;
 import static javax.persistence.CascadeType.ALL;
 import static javax.persistence.EnumType.STRING;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 @Entity
 @Table(name = "org_user")
+@Cacheable
+@Cache(usage = READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = User.WITH_ROLES_GRAPH, attributeNodes = @NamedAttributeNode("roles"))
 public class User {
 
+    public static final String WITH_ROLES_GRAPH = "User.withRoles";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -54,6 +66,9 @@ public class User {
     @JoinTable(name = "org_role_in_user",
             joinColumns = @JoinColumn(name = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @OptimisticLock(excluded = true)
+    @Cache(usage = READ_WRITE)
+    @BatchSize(size = 50)
     private List<Role> roles = newArrayList();
 
     @ReadOnlyProperty
@@ -68,6 +83,14 @@ public class User {
     @Column(name = "organization_id", updatable = false, insertable = false)
     private Long organizationId;
 
+    @Version
+    @JsonIgnore
+    private long version;
+
+    @LastModifiedDate
+    @JsonIgnore
+    private Instant lastModifiedDate;
+
     private User() {
     }
 
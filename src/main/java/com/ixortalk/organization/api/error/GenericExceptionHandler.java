@@ -25,6 +25,8 @@ package com.ixortalk.organization.api.error;
 
 import com.ixortalk.organization.api.OrganizationApiApplication;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -40,6 +42,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import javax.validation.ConstraintViolationException;
@@ -66,6 +69,12 @@ public class GenericExceptionHandler {
         return new ResponseEntity<>("Feign Error - " + errorUUID, new HttpHeaders(), valueOf(e.status()));
     }
 
+    @ExceptionHandler(value = { CallNotPermittedException.class, BulkheadFullException.class })
+    public ResponseEntity<String> handleDownstreamServiceUnavailableException(Exception e) {
+        String errorUUID = logError(e);
+        return new ResponseEntity<>("Service Unavailable - " + errorUUID, new HttpHeaders(), SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(value = ConflictException.class)
     public ResponseEntity<String> handleConflictException(ConflictException e) {
         String errorUUID = logError(e);
@@ -89,6 +98,12 @@ public class GenericExceptionHandler {
         return new ResponseEntity<>("Bad Request - " + errorUUID + " - missing parameter " + e.getRequestPartName(), new HttpHeaders(), BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = MaxUploadSizeExceededException.class)
+    public ResponseEntity<String> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException e) {
+        String errorUUID = logError(e);
+        return new ResponseEntity<>("Payload Too Large - " + errorUUID + " - maximum size " + e.getMaxUploadSize() + " bytes", new HttpHeaders(), PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(value = ResourceNotFoundException.class)
     public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException e) {
         String errorUUID = logError(e);
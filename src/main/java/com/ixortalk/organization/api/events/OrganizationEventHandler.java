@@ -24,6 +24,7 @@
 package com.ixortalk.organization.api.events;
 
 import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
+import com.ixortalk.organization.api.auth0.Auth0RoleSync;
 import com.ixortalk.organization.api.callback.api.OrganizationCallbackAPI;
 import com.ixortalk.organization.api.domain.Organization;
 import com.ixortalk.organization.api.domain.Role;
@@ -32,6 +33,7 @@ import com.ixortalk.organization.api.error.BadRequestException;
 import com.ixortalk.organization.api.error.ConflictException;
 import com.ixortalk.organization.api.rest.OrganizationRestResource;
 import com.ixortalk.organization.api.rest.RoleRestResource;
+import com.ixortalk.organization.api.service.OrganizationInformationCache;
 import com.ixortalk.organization.api.service.SecurityService;
 import com.ixortalk.organization.api.service.UserEmailProvider;
 import org.springframework.data.rest.core.annotation.*;
@@ -60,12 +62,18 @@ public class OrganizationEventHandler {
     @Inject
     private Auth0Roles auth0Roles;
 
+    @Inject
+    private Auth0RoleSync auth0RoleSync;
+
     @Inject
     private OrganizationCallbackAPI organizationCallbackAPI;
 
     @Inject
     private SecurityService securityService;
 
+    @Inject
+    private OrganizationInformationCache organizationInformationCache;
+
     @HandleBeforeCreate
     public void handleBeforeCreate(Organization organization) {
         organizationRestResource.findByName(organization.getName()).ifPresent(existing -> {
@@ -103,7 +111,9 @@ public class OrganizationEventHandler {
     }
 
     @HandleAfterDelete
-    public void handleAfterDelete(Organization organization) { }
+    public void handleAfterDelete(Organization organization) {
+        organizationInformationCache.evict(organization.getId());
+    }
 
     @HandleBeforeSave
     public void handleBeforeSave(Organization organization) {
@@ -112,6 +122,10 @@ public class OrganizationEventHandler {
         });
     }
 
+    @HandleAfterSave
+    public void handleAfterSave(Organization organization) {
+        organizationInformationCache.evict(organization.getId());
+    }
 
     @HandleBeforeLinkSave
     public void handleBeforeLinkSave(Organization organization, Collection<?> linked) {
@@ -135,7 +149,7 @@ public class OrganizationEventHandler {
                 .map(this::validateRoleNameNotInUse)
                 .map(Role::getRole)
                 .map(this::validateRoleDoesNotExistInAuth0)
-                .forEach(role -> auth0Roles.addRole(role));
+                .forEach(role -> auth0RoleSync.createRole(role));
     }
 
     private void removeDuplicateUsers(Organization organization, Collection<User> linked) {
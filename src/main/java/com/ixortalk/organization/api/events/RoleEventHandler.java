@@ -23,9 +23,9 @@
  */
 package com.ixortalk.organization.api.events;
 
-import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
+import com.ixortalk.organization.api.auth0.Auth0RoleSync;
 import com.ixortalk.organization.api.domain.Role;
-import com.ixortalk.organization.api.rest.OrganizationRestResource;
+import com.ixortalk.organization.api.service.UserService;
 import org.springframework.data.rest.core.annotation.HandleAfterDelete;
 import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
 import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
@@ -36,21 +36,18 @@ import javax.inject.Inject;
 public class RoleEventHandler {
 
     @Inject
-    private OrganizationRestResource organizationRestResource;
+    private UserService userService;
 
     @Inject
-    private Auth0Roles auth0Roles;
+    private Auth0RoleSync auth0RoleSync;
 
     @HandleBeforeDelete
     public void handleBeforeDelete(Role role) {
-        organizationRestResource.findByRoles(role)
-                .ifPresent(organization ->
-                        organization.getUsers().forEach(user -> user.getRoles().remove(role))
-                );
+        userService.removeRoleFromUsers(role);
     }
 
     @HandleAfterDelete
     public void handleAfterDelete(Role role) {
-        auth0Roles.deleteRole(role.getRole());
+        auth0RoleSync.deleteRole(role.getRole());
     }
 }
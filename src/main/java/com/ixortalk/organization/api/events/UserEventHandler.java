@@ -23,15 +23,14 @@
  */
 package com.ixortalk.organization.api.events;
 
-import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
-import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.auth0.Auth0RoleSync;
 import com.ixortalk.organization.api.callback.api.OrganizationCallbackAPI;
 import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
 import com.ixortalk.organization.api.error.BadRequestException;
 import com.ixortalk.organization.api.error.ConflictException;
-import com.ixortalk.organization.api.rest.OrganizationRestResource;
 import com.ixortalk.organization.api.rest.dto.UserInOrganizationDTO;
+import com.ixortalk.organization.api.service.OrganizationService;
 import org.springframework.data.rest.core.annotation.*;
 
 import javax.inject.Inject;
@@ -44,16 +43,13 @@ import static java.util.stream.Collectors.toSet;
 public class UserEventHandler {
 
     @Inject
-    private OrganizationRestResource organizationRestResource;
+    private OrganizationService organizationService;
 
     @Inject
     private OrganizationCallbackAPI organizationCallbackAPI;
 
     @Inject
-    private Auth0Users auth0Users;
-
-    @Inject
-    private Auth0Roles auth0Roles;
+    private Auth0RoleSync auth0RoleSync;
 
     @HandleBeforeCreate
     @HandleBeforeSave
@@ -63,13 +59,9 @@ public class UserEventHandler {
 
     @HandleBeforeDelete
     public void handleBeforeDelete(User user) {
-        organizationRestResource.findByUsers(user)
+        organizationService.getOrganization(user)
                 .ifPresent(organization -> {
-                    if (auth0Users.userExists(user.getLogin())) {
-                        auth0Roles.removeRolesFromUser(
-                                user.getLogin(),
-                                organization.getMatchingRoles(auth0Roles.getUsersRoles(user.getLogin())));
-                    }
+                    auth0RoleSync.removeRolesIfUserExists(user.getLogin(), roleNames(organization.getRoles()));
                     organizationCallbackAPI.userRemoved(new UserInOrganizationDTO(user.getLogin(), organization.getId()));
                 });
     }
@@ -85,9 +77,7 @@ public class UserEventHandler {
         if (roles.size() != roles.stream().map(Role::getRole).distinct().count())
             throw new ConflictException();
 
-        if (auth0Users.userExists(user.getLogin())) {
-            auth0Roles.assignRolesToUser(user.getLogin(), roles.stream().map(Role::getRole).collect(toSet()));
-        }
+        auth0RoleSync.assignRolesIfUserExists(user.getLogin(), roleNames(roles));
     }
 
     @HandleAfterLinkDelete
@@ -96,21 +86,21 @@ public class UserEventHandler {
             return;
         }
 
-        if (auth0Users.userExists(user.getLogin())) {
-            organizationRestResource.findByUsers(user)
-                    .ifPresent(organization -> {
-                        Set<String> roleNamesToRemove =
-                                organization
-                                        .getMatchingRoles(auth0Roles.getUsersRoles(user.getLogin()))
-                                        .stream()
-                                        .filter(matchingRole -> roles.stream().noneMatch(role -> role.getRole().equals(matchingRole)))
-                                        .collect(toSet());
-                        if (!roleNamesToRemove.isEmpty()) {
-                            auth0Roles.removeRolesFromUser(
-                                    user.getLogin(),
-                                    roleNamesToRemove);
-                        }
-                    });
-        }
+        organizationService.getOrganization(user)
+                .ifPresent(organization -> {
+                    Set<String> remainingRoleNames = roleNames(roles);
+                    Set<String> roleNamesToRemove =
+                            roleNames(organization.getRoles())
+                                    .stream()
+                                    .filter(roleName -> !remainingRoleNames.contains(roleName))
+                                    .collect(toSet());
+                    if (!roleNamesToRemove.isEmpty()) {
+                        auth0RoleSync.removeRolesIfUserExists(user.getLogin(), roleNamesToRemove);
+                    }
+                });
+    }
+
+    private static Set<String> roleNames(List<Role> roles) {
+        return roles.stream().map(Role::getRole).collect(toSet());
     }
 }
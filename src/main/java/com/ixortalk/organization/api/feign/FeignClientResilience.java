@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.feign;
+
+import com.google.common.cache.Cache;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.FeignConfig.Resilience;
+import com.ixortalk.organization.api.metrics.MethodTimer;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class FeignClientResilience {
+
+    public static final String FEIGN_METRIC = "organization.feign";
+
+    private final IxorTalkConfigProperties ixorTalkConfigProperties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final MethodTimer methodTimer;
+
+    private final ConcurrentMap<String, Cache<List<Object>, Object>> staleResponseCaches = new ConcurrentHashMap<>();
+
+    public FeignClientResilience(IxorTalkConfigProperties ixorTalkConfigProperties, CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry) {
+        this.ixorTalkConfigProperties = ixorTalkConfigProperties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.methodTimer = new MethodTimer(() -> meterRegistry, FEIGN_METRIC).withErrorOutcome(FeignClientResilience::outcome);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T decorate(Class<T> feignClientType, String clientName, T feignClient) {
+        Resilience resilience = ixorTalkConfigProperties.getFeign().getResilience(clientName);
+        return (T) Proxy.newProxyInstance(
+                feignClientType.getClassLoader(),
+                new Class<?>[]{feignClientType},
+                new ResilientFeignInvocationHandler(
+                        feignClient,
+                        circuitBreaker(clientName, resilience),
+                        bulkhead(clientName, resilience),
+                        staleResponseCache(clientName, resilience),
+                        methodTimer,
+                        meterRegistry));
+    }
+
+    public <T> T execute(String clientName, Callable<T> call) throws Exception {
+        return Bulkhead.decorateCallable(bulkheadRegistry.bulkhead(clientName), CircuitBreaker.decorateCallable(circuitBreakerRegistry.circuitBreaker(clientName), call)).call();
+    }
+
+    public CircuitBreaker getCircuitBreaker(String clientName) {
+        return circuitBreakerRegistry.circuitBreaker(clientName);
+    }
+
+    public void reset() {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+        staleResponseCaches.values().forEach(Cache::invalidateAll);
+    }
+
+    static boolean isFailure(Throwable throwable) {
+        if (throwable instanceof FeignException) {
+            int status = ((FeignException) throwable).status();
+            return status < 0 || status >= 500;
+        }
+        return true;
+    }
+
+    static String outcome(Throwable throwable) {
+        if (throwable instanceof CallNotPermittedException) {
+            return "CIRCUIT_OPEN";
+        }
+        if (throwable instanceof BulkheadFullException) {
+            return "BULKHEAD_FULL";
+        }
+        return isFailure(throwable) ? "SERVER_ERROR" : "CLIENT_ERROR";
+    }
+
+    private CircuitBreaker circuitBreaker(String clientName, Resilience resilience) {
+        return circuitBreakerRegistry.circuitBreaker(
+                clientName,
+                CircuitBreakerConfig.custom()
+                        .failureRateThreshold(resilience.getFailureRateThreshold())
+                        .slidingWindowSize(resilience.getSlidingWindowSize())
+                        .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                        .waitDurationInOpenState(resilience.getWaitDurationInOpenState())
+                        .recordException(FeignClientResilience::isFailure)
+                        .build());
+    }
+
+    private Bulkhead bulkhead(String clientName, Resilience resilience) {
+        return bulkheadRegistry.bulkhead(
+                clientName,
+                BulkheadConfig.custom()
+                        .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                        .maxWaitDuration(resilience.getMaxWaitDuration())
+                        .build());
+    }
+
+    private Cache<List<Object>, Object> staleResponseCache(String clientName, Resilience resilience) {
+        return staleResponseCaches.computeIfAbsent(
+                clientName,
+                name -> newBuilder()
+                        .maximumSize(resilience.getStaleResponseCacheSize())
+                        .expireAfterWrite(resilience.getStaleResponseMaxAge().toNanos(), NANOSECONDS)
+                        .build());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.feign;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.openfeign.FeignClient;
+
+import static java.util.Arrays.stream;
+import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
+
+public class ResilientFeignClientPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<FeignClientResilience> feignClientResilience;
+
+    public ResilientFeignClientPostProcessor(ObjectProvider<FeignClientResilience> feignClientResilience) {
+        this.feignClientResilience = feignClientResilience;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return stream(bean.getClass().getInterfaces())
+                .filter(type -> findMergedAnnotation(type, FeignClient.class) != null)
+                .findFirst()
+                .map(feignClientType -> decorate(feignClientType, bean))
+                .orElse(bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decorate(Class<T> feignClientType, Object feignClient) {
+        return feignClientResilience.getObject().decorate(feignClientType, findMergedAnnotation(feignClientType, FeignClient.class).name(), (T) feignClient);
+    }
+}
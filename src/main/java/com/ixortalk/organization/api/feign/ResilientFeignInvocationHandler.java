@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.feign;
+
+import com.google.common.cache.Cache;
+import com.ixortalk.organization.api.metrics.MethodTimer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class ResilientFeignInvocationHandler implements InvocationHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResilientFeignInvocationHandler.class);
+
+    private final Object delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Cache<List<Object>, Object> staleResponseCache;
+    private final MethodTimer methodTimer;
+    private final MeterRegistry meterRegistry;
+
+    ResilientFeignInvocationHandler(Object delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead, Cache<List<Object>, Object> staleResponseCache, MethodTimer methodTimer, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.staleResponseCache = staleResponseCache;
+        this.methodTimer = methodTimer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+
+        boolean staleResponseFallback = method.isAnnotationPresent(StaleResponseFallback.class);
+        try {
+            Object result = methodTimer.invoke(tags(method), () -> invokeDecorated(method, args));
+            if (staleResponseFallback && result != null) {
+                staleResponseCache.put(cacheKey(method, args), result);
+            }
+            return result;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            return staleResponseOrThrow(staleResponseFallback, method, args, e);
+        } catch (Throwable e) {
+            if (!FeignClientResilience.isFailure(e)) {
+                throw e;
+            }
+            return staleResponseOrThrow(staleResponseFallback, method, args, e);
+        }
+    }
+
+    private Object invokeDecorated(Method method, Object[] args) throws Throwable {
+        bulkhead.acquirePermission();
+        try {
+            circuitBreaker.acquirePermission();
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(delegate, args);
+                circuitBreaker.onSuccess(System.nanoTime() - start, NANOSECONDS);
+                return result;
+            } catch (InvocationTargetException e) {
+                circuitBreaker.onError(System.nanoTime() - start, NANOSECONDS, e.getCause());
+                throw e.getCause();
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private Object staleResponseOrThrow(boolean staleResponseFallback, Method method, Object[] args, Throwable e) throws Throwable {
+        if (staleResponseFallback) {
+            Object staleResponse = staleResponseCache.getIfPresent(cacheKey(method, args));
+            if (staleResponse != null) {
+                LOGGER.warn("Serving stale response for {} on {}: {}", method.getName(), circuitBreaker.getName(), e.getMessage());
+                meterRegistry.counter(FeignClientResilience.FEIGN_METRIC + ".stale", tags(method)).increment();
+                return staleResponse;
+            }
+        }
+        throw e;
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return method.invoke(delegate, args);
+        }
+    }
+
+    private Tags tags(Method method) {
+        return Tags.of("client", circuitBreaker.getName(), "method", method.getName());
+    }
+
+    private static List<Object> cacheKey(Method method, Object[] args) {
+        List<Object> key = newArrayList(method);
+        if (args != null) {
+            key.addAll(newArrayList(args));
+        }
+        return key;
+    }
+}
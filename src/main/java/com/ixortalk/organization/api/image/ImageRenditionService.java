@@ -0,0 +1,219 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.image;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.Organization.Api.Image;
+import com.ixortalk.organization.api.domain.ImageRendition;
+import com.ixortalk.organization.api.error.BadRequestException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.ixortalk.organization.api.image.StreamingImageUpload.streamingImageUpload;
+import static java.awt.RenderingHints.KEY_INTERPOLATION;
+import static java.awt.RenderingHints.KEY_RENDERING;
+import static java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+import static java.awt.RenderingHints.VALUE_RENDER_QUALITY;
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Arrays.stream;
+import static org.apache.commons.lang3.StringUtils.substringBeforeLast;
+import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
+import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
+
+@Named
+public class ImageRenditionService {
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    /**
+     * Spools the upload to a temporary file and only reads the image header to check the format and dimensions, the
+     * returned image must be closed to remove the file.
+     */
+    public ValidatedImage validate(StreamingImageUpload upload) throws IOException {
+        Image imageConfig = ixorTalkConfigProperties.getOrganization().getApi().getImage();
+        Path file = Files.createTempFile("image-upload-", ".tmp");
+        try {
+            try (InputStream inputStream = upload.getInputStream()) {
+                Files.copy(inputStream, file, REPLACE_EXISTING);
+            } catch (IOException e) {
+                upload.rethrowIfTooLarge(e);
+                throw e;
+            }
+
+            try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(file.toFile())) {
+                ImageReader reader = imageReader(imageInputStream);
+                try {
+                    String contentType =
+                            stream(reader.getOriginatingProvider().getMIMETypes())
+                                    .filter(imageConfig.getAllowedContentTypes()::contains)
+                                    .findFirst()
+                                    .orElseThrow(() -> new BadRequestException("Unsupported image type " + reader.getFormatName()));
+                    int width = reader.getWidth(0);
+                    int height = reader.getHeight(0);
+                    if (width > imageConfig.getMaxWidth() || height > imageConfig.getMaxHeight()) {
+                        throw new BadRequestException("Image dimensions " + width + "x" + height + " exceed " + imageConfig.getMaxWidth() + "x" + imageConfig.getMaxHeight());
+                    }
+                    return new ValidatedImage(file, upload.getFileName(), contentType, width, height);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public Map<ImageRendition, StreamingImageUpload> render(ValidatedImage image) throws IOException {
+        Image imageConfig = ixorTalkConfigProperties.getOrganization().getApi().getImage();
+        BufferedImage source = read(image, max(imageConfig.getThumbnailSize(), imageConfig.getMailSize()));
+
+        Map<ImageRendition, StreamingImageUpload> renditions = new EnumMap<>(ImageRendition.class);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            renditions.put(rendition, encode(scale(source, size(rendition, imageConfig)), rendition, image.getFileName(), imageConfig.getJpegQuality()));
+        }
+        return renditions;
+    }
+
+    private static ImageReader imageReader(ImageInputStream imageInputStream) {
+        if (imageInputStream == null) {
+            throw new BadRequestException("Unreadable image");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+        if (!readers.hasNext()) {
+            throw new BadRequestException("Unsupported image type");
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(imageInputStream, true, true);
+        return reader;
+    }
+
+    private static BufferedImage read(ValidatedImage image, int largestRenditionSize) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(image.getFile().toFile())) {
+            ImageReader reader = imageReader(imageInputStream);
+            try {
+                int subsampling = max(1, max(image.getWidth(), image.getHeight()) / (2 * largestRenditionSize));
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, readParam);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int size(ImageRendition rendition, Image imageConfig) {
+        switch (rendition) {
+            case THUMBNAIL:
+                return imageConfig.getThumbnailSize();
+            case MAIL:
+                return imageConfig.getMailSize();
+            default:
+                throw new IllegalArgumentException("Unknown rendition " + rendition);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = min(1d, (double) maxSize / max(source.getWidth(), source.getHeight()));
+        int targetWidth = max(1, (int) round(source.getWidth() * ratio));
+        int targetHeight = max(1, (int) round(source.getHeight() * ratio));
+        int type = source.getColorModel().hasAlpha() ? TYPE_INT_ARGB : TYPE_INT_RGB;
+
+        BufferedImage scaled = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = max(targetWidth, width / 2);
+            height = max(targetHeight, height / 2);
+            scaled = resize(scaled, width, height, type);
+        } while (width != targetWidth || height != targetHeight);
+        return scaled;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height, int type) {
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(KEY_INTERPOLATION, VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(KEY_RENDERING, VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static StreamingImageUpload encode(BufferedImage image, ImageRendition rendition, String originalFileName, float jpegQuality) throws IOException {
+        boolean png = image.getColorModel().hasAlpha();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(image, "png", bytes);
+        } else {
+            writeJpeg(image, bytes, jpegQuality);
+        }
+        return streamingImageUpload(
+                rendition.key(substringBeforeLast(originalFileName, ".")) + (png ? ".png" : ".jpg"),
+                png ? IMAGE_PNG_VALUE : IMAGE_JPEG_VALUE,
+                new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static void writeJpeg(BufferedImage image, ByteArrayOutputStream bytes, float jpegQuality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(imageOutputStream);
+            ImageWriteParam writeParam = writer.getDefaultWriteParam();
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
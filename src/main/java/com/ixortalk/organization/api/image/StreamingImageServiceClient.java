@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.image;
+
+import com.google.common.io.CountingInputStream;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.feign.FeignClientResilience;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.InputStreamBody;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.cloud.openfeign.FeignContext;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.http.entity.ContentType.DEFAULT_BINARY;
+import static org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.springframework.http.HttpHeaders.LOCATION;
+
+/**
+ * Streams uploads to the image service without buffering them, {@link ImageService#uploadImage} encodes the complete
+ * file in memory.
+ */
+@Named
+public class StreamingImageServiceClient {
+
+    static final String IMAGE_SERVICE = "image-service";
+    static final String FILE_REQUEST_PART_NAME = "file";
+    static final String KEY_REQUEST_PART_NAME = "key";
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private CloseableHttpClient feignHttpClient;
+
+    @Inject
+    private FeignContext feignContext;
+
+    @Inject
+    private FeignClientProperties feignClientProperties;
+
+    @Inject
+    private FeignClientResilience feignClientResilience;
+
+    @Inject
+    private MultipartProperties multipartProperties;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    public StreamingImageUpload readFileRequestPart(HttpServletRequest request) throws IOException, MissingServletRequestPartException {
+        return StreamingImageUpload.fileRequestPart(request, FILE_REQUEST_PART_NAME, multipartProperties.getMaxFileSize().toBytes());
+    }
+
+    public String upload(StreamingImageUpload upload, String key, String target) {
+        CountingInputStream countingInputStream = new CountingInputStream(upload.getInputStream());
+        long start = System.nanoTime();
+        String outcome = "ERROR";
+        try {
+            String location = feignClientResilience.execute(IMAGE_SERVICE, () -> post(countingInputStream, upload, key));
+            outcome = "SUCCESS";
+            return location;
+        } catch (IOException e) {
+            upload.rethrowIfTooLarge(e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not upload image: " + e.getMessage(), e);
+        } finally {
+            recordMetrics(target, outcome, countingInputStream.getCount(), System.nanoTime() - start);
+        }
+    }
+
+    private String post(CountingInputStream inputStream, StreamingImageUpload upload, String key) throws IOException {
+        HttpPost post = new HttpPost(ixorTalkConfigProperties.getMicroservice(IMAGE_SERVICE).getUrl() + "/upload");
+        post.setConfig(requestConfig());
+        applyRequestInterceptors(post);
+        post.setEntity(
+                MultipartEntityBuilder.create()
+                        .addTextBody(KEY_REQUEST_PART_NAME, key, TEXT_PLAIN)
+                        .addPart(FILE_REQUEST_PART_NAME, new InputStreamBody(inputStream, contentType(upload), upload.getFileName()))
+                        .build());
+
+        try (CloseableHttpResponse response = feignHttpClient.execute(post)) {
+            EntityUtils.consume(response.getEntity());
+            int status = response.getStatusLine().getStatusCode();
+            Header location = response.getFirstHeader(LOCATION);
+            if (status >= 300 || location == null) {
+                throw new IllegalStateException("Image service responded with status " + status + " for key " + key);
+            }
+            return location.getValue();
+        }
+    }
+
+    private void applyRequestInterceptors(HttpPost post) {
+        RequestTemplate requestTemplate = new RequestTemplate();
+        feignContext.getInstances(IMAGE_SERVICE, RequestInterceptor.class).values().forEach(requestInterceptor -> requestInterceptor.apply(requestTemplate));
+        requestTemplate.headers().forEach((name, values) -> values.forEach(value -> post.addHeader(name, value)));
+    }
+
+    private RequestConfig requestConfig() {
+        Request.Options defaults = new Request.Options();
+        return RequestConfig.custom()
+                .setConnectTimeout(feignClientConfiguration(FeignClientConfiguration::getConnectTimeout).orElse(defaults.connectTimeoutMillis()))
+                .setSocketTimeout(feignClientConfiguration(FeignClientConfiguration::getReadTimeout).orElse(defaults.readTimeoutMillis()))
+                .build();
+    }
+
+    private Optional<Integer> feignClientConfiguration(Function<FeignClientConfiguration, Integer> property) {
+        Optional<Integer> clientValue = ofNullable(feignClientProperties.getConfig().get(IMAGE_SERVICE)).map(property);
+        return clientValue.isPresent() ? clientValue : ofNullable(feignClientProperties.getConfig().get(feignClientProperties.getDefaultConfig())).map(property);
+    }
+
+    private static ContentType contentType(StreamingImageUpload upload) {
+        return ofNullable(upload.getContentType()).map(ContentType::parse).orElse(DEFAULT_BINARY);
+    }
+
+    private void recordMetrics(String target, String outcome, long bytes, long durationInNanos) {
+        Timer.builder("organization.image.upload")
+                .tag("target", target)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationInNanos, NANOSECONDS);
+        DistributionSummary.builder("organization.image.upload.size")
+                .baseUnit("bytes")
+                .tag("target", target)
+                .register(meterRegistry)
+                .record(bytes);
+        if (durationInNanos > 0) {
+            DistributionSummary.builder("organization.image.upload.throughput")
+                    .baseUnit("bytes.per.second")
+                    .tag("target", target)
+                    .register(meterRegistry)
+                    .record(bytes * 1_000_000_000d / durationInNanos);
+        }
+    }
+}
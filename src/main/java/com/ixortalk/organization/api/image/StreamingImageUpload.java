@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.image;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase.FileSizeLimitExceededException;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.google.common.base.Throwables.getCausalChain;
+
+public class StreamingImageUpload {
+
+    private final String fileName;
+    private final String contentType;
+    private final InputStream inputStream;
+    private final long maxFileSize;
+
+    private StreamingImageUpload(String fileName, String contentType, InputStream inputStream, long maxFileSize) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.inputStream = inputStream;
+        this.maxFileSize = maxFileSize;
+    }
+
+    public static StreamingImageUpload streamingImageUpload(String fileName, String contentType, InputStream inputStream) {
+        return new StreamingImageUpload(fileName, contentType, inputStream, -1);
+    }
+
+    /**
+     * Positions the multipart request at the start of the given file part without buffering it, the returned stream
+     * reads the part's content straight from the request body.
+     */
+    public static StreamingImageUpload fileRequestPart(HttpServletRequest request, String partName, long maxFileSize) throws IOException, MissingServletRequestPartException {
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            throw new MissingServletRequestPartException(partName);
+        }
+
+        ServletFileUpload servletFileUpload = new ServletFileUpload();
+        servletFileUpload.setFileSizeMax(maxFileSize);
+        try {
+            FileItemIterator items = servletFileUpload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+                if (partName.equals(item.getFieldName()) && !item.isFormField()) {
+                    return new StreamingImageUpload(item.getName(), item.getContentType(), item.openStream(), maxFileSize);
+                }
+            }
+        } catch (FileUploadException e) {
+            throw new MultipartException("Could not parse multipart request: " + e.getMessage(), e);
+        }
+        throw new MissingServletRequestPartException(partName);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Reading a request part beyond its maximum size fails with an {@link IOException} somewhere down the causal chain,
+     * which is rethrown as a {@link MaxUploadSizeExceededException} to answer {@code 413}.
+     */
+    public void rethrowIfTooLarge(IOException e) {
+        if (getCausalChain(e).stream().anyMatch(FileSizeLimitExceededException.class::isInstance)) {
+            throw new MaxUploadSizeExceededException(maxFileSize, e);
+        }
+    }
+}
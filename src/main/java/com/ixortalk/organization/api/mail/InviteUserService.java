@@ -80,7 +80,7 @@ public class InviteUserService {
                         ixorTalkConfigProperties.getLoadbalancer().getExternal().getUrlWithoutStandardPorts(),
                         organization.getName(),
                         user,
-                        imageMethodsService.constructImageLink(organization.getLogo()),
+                        imageMethodsService.constructImageLink(ofNullable(organization.getLogoMail()).orElse(organization.getLogo())),
                         auth0Users.userExists(user.getLogin()),
                         user.getAcceptKey().getAcceptKey())
         ));
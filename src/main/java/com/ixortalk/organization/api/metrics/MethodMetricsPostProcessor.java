@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.metrics;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Times every method of the registered bean types.  Beans that already are Spring AOP proxies, like Spring Data
+ * repositories, get the interceptor added in front of their existing advice, other beans are wrapped in a class based
+ * proxy.
+ */
+public class MethodMetricsPostProcessor implements BeanPostProcessor {
+
+    private final Map<Class<?>, MethodTimer> timedTypes = newLinkedHashMap();
+
+    public MethodMetricsPostProcessor time(Class<?> type, MethodTimer methodTimer) {
+        timedTypes.put(type, methodTimer);
+        return this;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return timedType(bean)
+                .map(type -> proxy(bean, new TimedMethodInterceptor(timedTypes.get(type), type)))
+                .orElse(bean);
+    }
+
+    private Optional<Class<?>> timedType(Object bean) {
+        return timedTypes.keySet().stream().filter(type -> type.isInstance(bean)).findFirst();
+    }
+
+    private static Object proxy(Object bean, TimedMethodInterceptor interceptor) {
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+}
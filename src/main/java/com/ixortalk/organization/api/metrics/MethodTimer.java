@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records a timer tagged with the outcome and exception of every invocation, the count of the timer doubles as the
+ * invocation counter.
+ */
+public class MethodTimer {
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_ERROR = "ERROR";
+
+    private static final String NO_EXCEPTION = "None";
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    private final String metricName;
+    private final Function<Object, String> resultOutcome;
+    private final Function<Throwable, String> errorOutcome;
+
+    private volatile MeterRegistry meterRegistry;
+
+    public MethodTimer(Supplier<MeterRegistry> meterRegistry, String metricName) {
+        this(meterRegistry, metricName, result -> OUTCOME_SUCCESS, error -> OUTCOME_ERROR);
+    }
+
+    private MethodTimer(Supplier<MeterRegistry> meterRegistry, String metricName, Function<Object, String> resultOutcome, Function<Throwable, String> errorOutcome) {
+        this.meterRegistrySupplier = meterRegistry;
+        this.metricName = metricName;
+        this.resultOutcome = resultOutcome;
+        this.errorOutcome = errorOutcome;
+    }
+
+    public MethodTimer withResultOutcome(Function<Object, String> resultOutcome) {
+        return new MethodTimer(meterRegistrySupplier, metricName, resultOutcome, errorOutcome);
+    }
+
+    public MethodTimer withErrorOutcome(Function<Throwable, String> errorOutcome) {
+        return new MethodTimer(meterRegistrySupplier, metricName, resultOutcome, errorOutcome);
+    }
+
+    public Object invoke(Tags tags, Invocation invocation) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry());
+        try {
+            Object result = invocation.proceed();
+            stop(sample, tags, resultOutcome.apply(result), NO_EXCEPTION);
+            return result;
+        } catch (Throwable e) {
+            stop(sample, tags, errorOutcome.apply(e), e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    public <T> T record(Tags tags, Supplier<T> supplier) {
+        Timer.Sample sample = Timer.start(meterRegistry());
+        try {
+            T result = supplier.get();
+            stop(sample, tags, resultOutcome.apply(result), NO_EXCEPTION);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, tags, errorOutcome.apply(e), e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private void stop(Timer.Sample sample, Tags tags, String outcome, String exception) {
+        sample.stop(
+                Timer.builder(metricName)
+                        .tags(tags)
+                        .tag("outcome", outcome)
+                        .tag("exception", exception)
+                        .register(meterRegistry()));
+    }
+
+    private MeterRegistry meterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = meterRegistrySupplier.get();
+        }
+        return meterRegistry;
+    }
+
+    @FunctionalInterface
+    public interface Invocation {
+
+        Object proceed() throws Throwable;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.Header;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+import static io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor.DEFAULT_URI_PATTERN_HEADER;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Times Apache HttpClient requests as {@code httpcomponents.httpclient.request}, tagged with the uri pattern that
+ * {@link #uriPatternInterceptor()} moved from the request headers into the {@link HttpContext}.  Micrometer's own
+ * executor can only read the pattern from the request, which would then have to keep the header until it is sent.
+ */
+public class UriPatternHttpRequestExecutor extends HttpRequestExecutor {
+
+    public static final String METRIC_NAME = "httpcomponents.httpclient.request";
+
+    static final String URI_PATTERN_ATTRIBUTE = UriPatternHttpRequestExecutor.class.getName() + ".uriPattern";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public UriPatternHttpRequestExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Takes the uri pattern header off the request before it is sent downstream, keeping its value for the timer.
+     */
+    public static HttpRequestInterceptor uriPatternInterceptor() {
+        return (request, context) -> {
+            Header uriPattern = request.getFirstHeader(DEFAULT_URI_PATTERN_HEADER);
+            if (uriPattern != null) {
+                request.removeHeaders(DEFAULT_URI_PATTERN_HEADER);
+                context.setAttribute(URI_PATTERN_ATTRIBUTE, uriPattern.getValue());
+            }
+        };
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context) throws IOException, HttpException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "CLIENT_ERROR";
+        try {
+            HttpResponse response = super.execute(request, conn, context);
+            if (response != null) {
+                status = Integer.toString(response.getStatusLine().getStatusCode());
+            }
+            return response;
+        } catch (IOException | HttpException | RuntimeException e) {
+            status = "IO_ERROR";
+            throw e;
+        } finally {
+            sample.stop(
+                    Timer.builder(METRIC_NAME)
+                            .tag("method", request.getRequestLine().getMethod())
+                            .tag("uri", ofNullable((String) context.getAttribute(URI_PATTERN_ATTRIBUTE)).orElse(UNKNOWN_URI))
+                            .tag("status", status)
+                            .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.ratelimit;
+
+import com.google.common.base.Supplier;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Splitter.on;
+import static com.google.common.base.Suppliers.memoize;
+import static com.google.common.collect.Lists.reverse;
+
+/**
+ * Resolves the client address behind the load balancer the way Tomcat's {@code RemoteIpValve} does: {@code
+ * X-Forwarded-For} is only followed while the hop that added it is a trusted proxy, so clients can't pick their own
+ * address.  Works whether or not {@code server.forward-headers-strategy} already rewrote the remote address.
+ */
+@Named
+public class ClientIpResolver {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    private final Supplier<Pattern> trustedProxies =
+            memoize(() -> Pattern.compile(ixorTalkConfigProperties.getOrganization().getRateLimit().getTrustedProxies()));
+
+    public String clientIp(HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor == null) {
+            return clientIp;
+        }
+
+        List<String> hops = on(',').trimResults().omitEmptyStrings().splitToList(forwardedFor);
+        for (String hop : reverse(hops)) {
+            if (!isTrustedProxy(clientIp)) {
+                return clientIp;
+            }
+            clientIp = hop;
+        }
+        return clientIp;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        return trustedProxies.get().matcher(address).matches();
+    }
+}
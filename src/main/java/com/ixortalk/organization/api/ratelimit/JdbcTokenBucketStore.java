@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.ratelimit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.ixortalk.organization.api.ratelimit.TokenBucket.consume;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+/**
+ * Keeps the buckets in the {@code rate_limit_bucket} table, so all nodes share the same limits.  The row is locked while
+ * a token is taken; the first request for a key races on the insert and retries once when it loses.
+ */
+public class JdbcTokenBucketStore implements TokenBucketStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcTokenBucketStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean tryConsume(String key, int capacity, Duration period, Instant now) {
+        try {
+            return transactionTemplate.execute(status -> doTryConsume(key, capacity, period, now));
+        } catch (DuplicateKeyException e) {
+            return transactionTemplate.execute(status -> doTryConsume(key, capacity, period, now));
+        }
+    }
+
+    @Override
+    public void refund(String key, int capacity, Duration period, Instant now) {
+        transactionTemplate.execute(status -> {
+            List<TokenBucket> current = lockBucket(key);
+            if (!current.isEmpty()) {
+                updateBucket(key, TokenBucket.refund(current.get(0), capacity, period, now));
+            }
+            return null;
+        });
+    }
+
+    private boolean doTryConsume(String key, int capacity, Duration period, Instant now) {
+        List<TokenBucket> current = lockBucket(key);
+
+        TokenBucket bucket = consume(current.isEmpty() ? null : current.get(0), capacity, period, now);
+        if (current.isEmpty()) {
+            jdbcTemplate.update(
+                    "insert into rate_limit_bucket (bucket_key, tokens, updated_at, full_at) values (?, ?, ?, ?)",
+                    key, bucket.getTokens(), Timestamp.from(bucket.getUpdatedAt()), Timestamp.from(bucket.getFullAt()));
+        } else {
+            updateBucket(key, bucket);
+        }
+        return bucket.isAllowed();
+    }
+
+    private List<TokenBucket> lockBucket(String key) {
+        return jdbcTemplate.query(
+                "select tokens, updated_at, full_at from rate_limit_bucket where bucket_key = ? for update",
+                (rs, rowNum) -> new TokenBucket(rs.getDouble("tokens"), rs.getTimestamp("updated_at").toInstant(), rs.getTimestamp("full_at").toInstant(), true),
+                key);
+    }
+
+    private void updateBucket(String key, TokenBucket bucket) {
+        jdbcTemplate.update(
+                "update rate_limit_bucket set tokens = ?, updated_at = ?, full_at = ? where bucket_key = ?",
+                bucket.getTokens(), Timestamp.from(bucket.getUpdatedAt()), Timestamp.from(bucket.getFullAt()), key);
+    }
+
+    @Override
+    public void removeFullBuckets(Instant now) {
+        jdbcTemplate.update("delete from rate_limit_bucket where full_at <= ?", Timestamp.from(now));
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.ratelimit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.ixortalk.organization.api.ratelimit.TokenBucket.consume;
+import static com.ixortalk.organization.api.ratelimit.TokenBucket.refund;
+
+/**
+ * Keeps the buckets in memory, limits are applied per node.
+ */
+public class LocalTokenBucketStore implements TokenBucketStore {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryConsume(String key, int capacity, Duration period, Instant now) {
+        return buckets.compute(key, (k, current) -> consume(current, capacity, period, now)).isAllowed();
+    }
+
+    @Override
+    public void refund(String key, int capacity, Duration period, Instant now) {
+        buckets.computeIfPresent(key, (k, current) -> refund(current, capacity, period, now));
+    }
+
+    @Override
+    public void removeFullBuckets(Instant now) {
+        buckets.values().removeIf(bucket -> !bucket.getFullAt().isAfter(now));
+    }
+}
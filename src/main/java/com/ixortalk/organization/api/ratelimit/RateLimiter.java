@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.ratelimit;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.RateLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Clock;
+
+import static java.time.Instant.now;
+
+@Named
+public class RateLimiter {
+
+    public static final String RATE_LIMIT_METER_NAME = "organization.rate.limit";
+
+    @Inject
+    private TokenBucketStore tokenBucketStore;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Inject
+    private Clock clock;
+
+    /**
+     * Takes a token from the bucket of {@code key} within {@code limit}.  A limit with an empty period is disabled.
+     */
+    public boolean tryAcquire(String limit, String key, RateLimit rateLimit) {
+        if (rateLimit.getPeriod().isZero() || rateLimit.getPeriod().isNegative()) {
+            return true;
+        }
+
+        boolean allowed = tokenBucketStore.tryConsume(limit + ":" + key, rateLimit.getCapacity(), rateLimit.getPeriod(), now(clock));
+        Counter.builder(RATE_LIMIT_METER_NAME)
+                .tag("limit", limit)
+                .tag("outcome", allowed ? "ALLOWED" : "REJECTED")
+                .register(meterRegistry)
+                .increment();
+        return allowed;
+    }
+
+    /**
+     * Gives back the token taken by {@link #tryAcquire(String, String, RateLimit)} for a request that should not count
+     * against the limit.
+     */
+    public void release(String limit, String key, RateLimit rateLimit) {
+        if (rateLimit.getPeriod().isZero() || rateLimit.getPeriod().isNegative()) {
+            return;
+        }
+        tokenBucketStore.refund(limit + ":" + key, rateLimit.getCapacity(), rateLimit.getPeriod(), now(clock));
+    }
+
+    @Scheduled(fixedDelayString = "${ixortalk.organization.rate-limit.cleanup-interval:PT5M}")
+    public void removeFullBuckets() {
+        tokenBucketStore.removeFullBuckets(now(clock));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.ratelimit;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Immutable token bucket state.  Tokens refill continuously at {@code capacity / period}; {@link #getFullAt()} is the
+ * moment the bucket is full again, after which it can be forgotten without changing any outcome.
+ */
+public class TokenBucket {
+
+    private final double tokens;
+    private final Instant updatedAt;
+    private final Instant fullAt;
+    private final boolean allowed;
+
+    public TokenBucket(double tokens, Instant updatedAt, Instant fullAt, boolean allowed) {
+        this.tokens = tokens;
+        this.updatedAt = updatedAt;
+        this.fullAt = fullAt;
+        this.allowed = allowed;
+    }
+
+    public static TokenBucket consume(TokenBucket current, int capacity, Duration period, Instant now) {
+        double available = available(current, capacity, period, now);
+        boolean allowed = available >= 1;
+        return bucket(allowed ? available - 1 : available, capacity, period, now, allowed);
+    }
+
+    /**
+     * Gives back a token taken by {@link #consume(TokenBucket, int, Duration, Instant)}.
+     */
+    public static TokenBucket refund(TokenBucket current, int capacity, Duration period, Instant now) {
+        return bucket(min(capacity, available(current, capacity, period, now) + 1), capacity, period, now, true);
+    }
+
+    private static double available(TokenBucket current, int capacity, Duration period, Instant now) {
+        return current == null ?
+                capacity :
+                min(capacity, current.tokens + max(0, Duration.between(current.updatedAt, now).toNanos()) * refillPerNano(capacity, period));
+    }
+
+    private static TokenBucket bucket(double tokens, int capacity, Duration period, Instant now, boolean allowed) {
+        Instant fullAt = now.plusNanos((long) ceil((capacity - tokens) / refillPerNano(capacity, period)));
+        return new TokenBucket(tokens, now, fullAt, allowed);
+    }
+
+    private static double refillPerNano(int capacity, Duration period) {
+        return (double) capacity / period.toNanos();
+    }
+
+    public double getTokens() {
+        return tokens;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getFullAt() {
+        return fullAt;
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+}
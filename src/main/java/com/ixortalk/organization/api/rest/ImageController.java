@@ -28,11 +28,12 @@ import com.ixortalk.organization.api.service.ImageMethodsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 
 @RestController
 public class ImageController {
@@ -41,12 +42,12 @@ public class ImageController {
     private ImageMethodsService imageMethodService;
 
     @PostMapping(path = "/organizations/{organizationId}/image")
-    public ResponseEntity<?> uploadImage(@PathVariable("organizationId") Long organizationId, @RequestPart("file") MultipartFile multipartFile) {
-        return imageMethodService.uploadToImageService(organizationId, multipartFile, Organization::setImage, "image");
+    public ResponseEntity<?> uploadImage(@PathVariable("organizationId") Long organizationId, HttpServletRequest request) throws IOException, MissingServletRequestPartException {
+        return imageMethodService.uploadToImageService(organizationId, request, Organization::setImage, "image");
     }
 
     @PostMapping(path = "/organizations/{organizationId}/logo")
-    public ResponseEntity<?> uploadLogo(@PathVariable("organizationId") Long organizationId, @RequestPart("file") MultipartFile multipartFile) {
-        return imageMethodService.uploadToImageService(organizationId, multipartFile, Organization::setLogo, "logo");
+    public ResponseEntity<?> uploadLogo(@PathVariable("organizationId") Long organizationId, HttpServletRequest request) throws IOException, MissingServletRequestPartException {
+        return imageMethodService.uploadToImageService(organizationId, request, Organization::setLogo, "logo");
     }
 }
@@ -0,0 +1,78 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.error.BadRequestException;
+import com.ixortalk.organization.api.rest.dto.LoginMembershipsDTO;
+import com.ixortalk.organization.api.service.MembershipReadModel;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.inject.Inject;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Organizations, admin flags and role names per login, served from the {@link MembershipReadModel}.
+ */
+@RestController
+@RequestMapping(path = "/memberships", produces = APPLICATION_JSON_VALUE)
+public class MembershipController {
+
+    @Inject
+    private MembershipReadModel membershipReadModel;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @GetMapping(path = "/{login:.+}")
+    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isCurrentUser(#login)")
+    public LoginMembershipsDTO findByLogin(@PathVariable("login") String login) {
+        String lowercaseLogin = login.toLowerCase(ROOT);
+        return new LoginMembershipsDTO(lowercaseLogin, membershipReadModel.findByLogins(singletonList(lowercaseLogin)).get(lowercaseLogin));
+    }
+
+    @PostMapping(path = "/search")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<LoginMembershipsDTO> findByLogins(@RequestBody List<String> logins) {
+        if (logins.size() > ixorTalkConfigProperties.getOrganization().getApi().getMemberships().getMaxLogins()) {
+            throw new BadRequestException("Too many logins");
+        }
+        return membershipReadModel.findByLogins(logins.stream().map(login -> login.toLowerCase(ROOT)).distinct().collect(toList()))
+                .entrySet()
+                .stream()
+                .map(entry -> new LoginMembershipsDTO(entry.getKey(), entry.getValue()))
+                .collect(toList());
+    }
+}
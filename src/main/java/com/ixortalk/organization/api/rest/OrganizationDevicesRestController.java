@@ -27,7 +27,9 @@ import com.ixortalk.organization.api.asset.Asset;
 import com.ixortalk.organization.api.asset.DeviceId;
 import com.ixortalk.organization.api.callback.api.OrganizationCallbackAPI;
 import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
-import com.ixortalk.organization.api.image.ImageService;
+import com.ixortalk.organization.api.domain.OrganizationId;
+import com.ixortalk.organization.api.image.StreamingImageServiceClient;
+import com.ixortalk.organization.api.image.StreamingImageUpload;
 import com.ixortalk.organization.api.rest.dto.DeviceInOrganizationDTO;
 import com.ixortalk.organization.api.rest.dto.SaveDevicePropertiesDTO;
 import com.ixortalk.organization.api.service.AssetMgmtFacade;
@@ -37,19 +39,20 @@ import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import static com.google.common.collect.Maps.newHashMap;
+import static com.ixortalk.organization.api.asset.DeviceId.deviceId;
 import static com.ixortalk.organization.api.asset.Properties.MappedField.IMAGE;
 import static com.ixortalk.organization.api.config.AssetMgmtConfig.IXORTALK_SERVER_ASSETMGMT_URL;
 import static java.util.Collections.singletonMap;
-import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.http.HttpHeaders.LOCATION;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.ResponseEntity.badRequest;
 import static org.springframework.http.ResponseEntity.created;
@@ -57,6 +60,7 @@ import static org.springframework.http.ResponseEntity.noContent;
 import static org.springframework.http.ResponseEntity.notFound;
 import static org.springframework.http.ResponseEntity.ok;
 import static org.springframework.http.ResponseEntity.status;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 import static org.springframework.web.util.UriComponentsBuilder.fromUriString;
 
 @ConditionalOnProperty(IXORTALK_SERVER_ASSETMGMT_URL)
@@ -77,7 +81,7 @@ public class OrganizationDevicesRestController {
     private IxorTalkConfigProperties ixorTalkConfigProperties;
 
     @Inject
-    private ImageService imageService;
+    private StreamingImageServiceClient streamingImageServiceClient;
 
     @Inject
     private ImageMethodsService imageMethodsService;
@@ -89,6 +93,13 @@ public class OrganizationDevicesRestController {
                 .collect(toList());
     }
 
+    @Transactional(propagation = NOT_SUPPORTED)
+    public List<Map<String, Object>> getDevices(OrganizationId organizationId) {
+        return assetMgmtFacade.getDevicesFromAssetMgmt(organizationId)
+                .map(this::constructAssetInformation)
+                .collect(toList());
+    }
+
     @GetMapping(path = "/{organizationId}/deviceIds")
     public List<String> getDeviceIds(@PathVariable("organizationId") Long organizationId) {
         return assetMgmtFacade.getDevicesFromAssetMgmt(organizationId)
@@ -128,17 +139,18 @@ public class OrganizationDevicesRestController {
         return noContent().build();
     }
 
+    @Transactional(propagation = NOT_SUPPORTED)
     @PostMapping(path = "/{organizationId}/devices/{deviceId}/image")
-    public ResponseEntity<?> uploadDeviceImage(DeviceInOrganizationDTO deviceInOrganizationDTO, @RequestPart("file") MultipartFile multipartFile) {
+    public ResponseEntity<?> uploadDeviceImage(@PathVariable("organizationId") Long organizationId, @PathVariable("deviceId") String deviceId, HttpServletRequest request) throws IOException, MissingServletRequestPartException {
+        DeviceInOrganizationDTO deviceInOrganizationDTO = new DeviceInOrganizationDTO(organizationId, deviceId(deviceId));
+        StreamingImageUpload upload = streamingImageServiceClient.readFileRequestPart(request);
         return assetMgmtFacade.getOwnedDevice(deviceInOrganizationDTO)
-                .flatMap(asset ->
-                        ofNullable(imageService.uploadImage(multipartFile, "organizations/" + deviceInOrganizationDTO.getOrganizationId().longValue() + "/" + deviceInOrganizationDTO.getDeviceId().stringValue() + "/image"))
-                                .map(response -> {
-                                            String imageUrl = response.headers().get(LOCATION).iterator().next();
-                                            assetMgmtFacade.saveAssetProperties(asset, singletonMap(IMAGE.getPropertyName(), imageUrl));
-                                            return created(fromUriString(imageUrl).build().toUri()).build();
-                                        }
-                                ))
+                .map(asset -> {
+                            String imageUrl = streamingImageServiceClient.upload(upload, "organizations/" + organizationId + "/" + deviceId + "/image", "device-image");
+                            assetMgmtFacade.saveAssetProperties(asset, singletonMap(IMAGE.getPropertyName(), imageUrl));
+                            return created(fromUriString(imageUrl).build().toUri()).build();
+                        }
+                )
                 .orElse(notFound().build());
     }
 
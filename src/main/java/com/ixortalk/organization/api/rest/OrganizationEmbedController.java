@@ -0,0 +1,289 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.domain.EnhancedUserProjection;
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.OrganizationId;
+import com.ixortalk.organization.api.service.OrganizationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.RepresentationModelProcessor;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.hateoas.server.mvc.RepresentationModelProcessorInvoker;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.hateoas.CollectionModel.wrap;
+import static org.springframework.http.HttpHeaders.WARNING;
+import static org.springframework.http.ResponseEntity.badRequest;
+import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.security.core.context.SecurityContextHolder.clearContext;
+import static org.springframework.security.core.context.SecurityContextHolder.getContext;
+import static org.springframework.security.core.context.SecurityContextHolder.setContext;
+
+/**
+ * {@code GET /organizations/{id}?embed=users,roles,adminUsers,devices} returns the organization with the requested
+ * sub-resources in {@code _embedded}, saving the client a round trip per link.  The devices are fetched from asset
+ * management on a separate thread while the users and roles are queried.  When asset management does not answer in
+ * time, or the embed pool is saturated, the organization is returned without its devices and with a {@code Warning}
+ * header.
+ */
+@RepositoryRestController
+@RequestMapping("/organizations")
+public class OrganizationEmbedController {
+
+    static final String USERS = "users";
+    static final String ROLES = "roles";
+    static final String ADMIN_USERS = "adminUsers";
+    static final String DEVICES = "devices";
+
+    static final String DEVICES_NOT_EMBEDDED_WARNING = "199 - \"Devices could not be embedded\"";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrganizationEmbedController.class);
+
+    private static final Set<String> EMBEDDABLE = newHashSet(USERS, ROLES, ADMIN_USERS, DEVICES);
+
+    private static final ResolvableType ENHANCED_USERS_TYPE =
+            ResolvableType.forClassWithGenerics(CollectionModel.class, ResolvableType.forClassWithGenerics(EntityModel.class, EnhancedUserProjection.class));
+
+    @Inject
+    private OrganizationRestResource organizationRestResource;
+
+    @Inject
+    private UserRestResource userRestResource;
+
+    @Inject
+    private RoleRestResource roleRestResource;
+
+    @Inject
+    private OrganizationService organizationService;
+
+    @Inject
+    private ObjectProvider<OrganizationDevicesRestController> organizationDevicesRestController;
+
+    @Inject
+    private ProjectionFactory projectionFactory;
+
+    @Inject
+    private RepositoryRestConfiguration repositoryRestConfiguration;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private List<RepresentationModelProcessor<?>> representationModelProcessors;
+
+    private RepresentationModelProcessorInvoker representationModelProcessorInvoker;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void createExecutor() {
+        representationModelProcessorInvoker = new RepresentationModelProcessorInvoker(representationModelProcessors);
+
+        IxorTalkConfigProperties.Organization.Api.Embed embed = ixorTalkConfigProperties.getOrganization().getApi().getEmbed();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                embed.getThreads(),
+                embed.getThreads(),
+                0L, MILLISECONDS,
+                embed.getQueueCapacity() > 0 ? new ArrayBlockingQueue<>(embed.getQueueCapacity()) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "organization-embed-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @GetMapping(path = "/{organizationId}", params = "embed")
+    public ResponseEntity<?> findOneWithEmbedded(@PathVariable("organizationId") Long organizationId, @RequestParam("embed") Set<String> embed, PersistentEntityResourceAssembler persistentEntityResourceAssembler) {
+        if (!EMBEDDABLE.containsAll(embed)) {
+            return badRequest().build();
+        }
+
+        Organization organization = organizationRestResource.findById(organizationId).orElseThrow(ResourceNotFoundException::new);
+
+        OrganizationDevicesRestController devicesController = organizationDevicesRestController.getIfAvailable();
+        OrganizationId assetOrganizationId = organization.getOrganizationId();
+        CompletableFuture<List<Map<String, Object>>> devices =
+                embed.contains(DEVICES) && devicesController != null ?
+                        async(() -> devicesController.getDevices(assetOrganizationId)) :
+                        null;
+
+        EmbeddedWrappers wrappers = new EmbeddedWrappers(false);
+        List<EmbeddedWrapper> embedded = newArrayList();
+        if (embed.contains(USERS)) {
+            embedded.add(wrappers.wrap(users(organizationId), LinkRelation.of(USERS)));
+        }
+        if (embed.contains(ROLES)) {
+            embedded.add(wrappers.wrap(roles(organizationId, persistentEntityResourceAssembler), LinkRelation.of(ROLES)));
+        }
+        if (embed.contains(ADMIN_USERS)) {
+            embedded.add(wrappers.wrap(processed(organizationService.getAdminUsers(organizationId)), LinkRelation.of(ADMIN_USERS)));
+        }
+        boolean partial = false;
+        if (devices != null) {
+            List<Map<String, Object>> fetchedDevices = await(devices, organizationId);
+            if (fetchedDevices != null) {
+                embedded.add(wrappers.wrap(fetchedDevices, LinkRelation.of(DEVICES)));
+            } else {
+                partial = true;
+            }
+        }
+
+        PersistentEntityResource resource = persistentEntityResourceAssembler.toFullResource(organization);
+        resource.getEmbeddeds().forEach(embedded::add);
+        PersistentEntityResource.Builder builder = PersistentEntityResource.build(organization, resource.getPersistentEntity()).withEmbedded(embedded);
+        resource.getLinks().forEach(builder::withLink);
+        return partial ?
+                ok().header(WARNING, DEVICES_NOT_EMBEDDED_WARNING).body(builder.build()) :
+                ok(builder.build());
+    }
+
+    private Pageable firstPage() {
+        return PageRequest.of(0, repositoryRestConfiguration.getDefaultPageSize());
+    }
+
+    /**
+     * The first page of users, as following {@code findUsersByOrganization} returns them.
+     */
+    private List<EntityModel<EnhancedUserProjection>> users(Long organizationId) {
+        return processed(
+                wrap(
+                        userRestResource.findByOrganizationId(firstPage(), organizationId)
+                                .map(user -> projectionFactory.createProjection(EnhancedUserProjection.class, user))
+                                .getContent()));
+    }
+
+    /**
+     * The first page of roles, as following {@code findRolesByOrganization} returns them.
+     */
+    private List<PersistentEntityResource> roles(Long organizationId, PersistentEntityResourceAssembler persistentEntityResourceAssembler) {
+        return roleRestResource.findByOrganizationId(firstPage(), organizationId)
+                .map(persistentEntityResourceAssembler::toModel)
+                .getContent();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EntityModel<EnhancedUserProjection>> processed(CollectionModel<EntityModel<EnhancedUserProjection>> users) {
+        return newArrayList(((CollectionModel<EntityModel<EnhancedUserProjection>>) representationModelProcessorInvoker.invokeProcessorsFor(users, ENHANCED_USERS_TYPE)).getContent());
+    }
+
+    /**
+     * Runs on the embed executor with the caller's security context.  The request attributes are deliberately not
+     * passed on: a call that times out keeps running after the request is recycled, so the supplier may only use values
+     * copied from the request up front.  When the pool and its queue are full the returned future fails with a
+     * {@link RejectedExecutionException}.
+     */
+    private <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        SecurityContext securityContext = getContext();
+        try {
+            return supplyAsync(() -> {
+                setContext(securityContext);
+                try {
+                    return supplier.get();
+                } finally {
+                    clearContext();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    /**
+     * Returns {@code null} when the call was rejected or timed out, so the response can be degraded instead of failed.
+     * Errors of the call itself (e.g. asset management refusing it) are rethrown.
+     */
+    private <T> T await(CompletableFuture<T> future, Long organizationId) {
+        try {
+            return future.get(ixorTalkConfigProperties.getOrganization().getApi().getEmbed().getTimeout().toMillis(), MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                LOGGER.warn("Embed pool saturated, returning organization {} without devices", organizationId);
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warn("Devices of organization {} not fetched within {}, returning it without devices", organizationId, ixorTalkConfigProperties.getOrganization().getApi().getEmbed().getTimeout());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
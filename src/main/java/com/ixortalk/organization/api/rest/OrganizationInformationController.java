@@ -23,18 +23,49 @@
  */
 package com.ixortalk.organization.api.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.service.OrganizationInformationCache;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
 import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
 import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.server.RepresentationModelProcessor;
+import org.springframework.hateoas.server.mvc.RepresentationModelProcessorInvoker;
+import org.springframework.http.CacheControl;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Arrays.asList;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.ALL;
+import static org.springframework.http.MediaType.parseMediaTypes;
+import static org.springframework.http.MediaType.sortBySpecificityAndQuality;
 import static org.springframework.http.ResponseEntity.notFound;
 import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.http.ResponseEntity.status;
+import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentContextPath;
 
 @RepositoryRestController
 @RequestMapping("/organization-information")
@@ -43,10 +74,84 @@ public class OrganizationInformationController {
     @Inject
     private OrganizationRestResource organizationRestResource;
 
+    @Inject
+    private OrganizationInformationCache organizationInformationCache;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private List<RepresentationModelProcessor<?>> representationModelProcessors;
+
+    @Inject
+    @Named("halJacksonHttpMessageConverter")
+    private AbstractJackson2HttpMessageConverter halJacksonHttpMessageConverter;
+
+    private RepresentationModelProcessorInvoker representationModelProcessorInvoker;
+
+    private List<MediaType> supportedMediaTypes;
+
+    @PostConstruct
+    public void createRepresentationModelProcessorInvoker() {
+        representationModelProcessorInvoker = new RepresentationModelProcessorInvoker(representationModelProcessors);
+        supportedMediaTypes = newArrayList(HAL_JSON);
+        halJacksonHttpMessageConverter.getSupportedMediaTypes().stream()
+                .filter(MediaType::isConcrete)
+                .filter(mediaType -> !supportedMediaTypes.contains(mediaType))
+                .forEach(supportedMediaTypes::add);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> findOne(@PathVariable("id") Long id, PersistentEntityResourceAssembler persistentEntityResourceAssembler) {
+    public ResponseEntity<?> findOne(@PathVariable("id") Long id, PersistentEntityResourceAssembler persistentEntityResourceAssembler, WebRequest webRequest) {
+        Optional<MediaType> mediaType = negotiate(webRequest);
+        if (!mediaType.isPresent()) {
+            return status(NOT_ACCEPTABLE).build();
+        }
         return ofNullable(organizationRestResource.findOneById(id))
-                .map(organization -> ok(persistentEntityResourceAssembler.toFullResource(organization)))
+                .<ResponseEntity<?>>map(organization ->
+                        notModified(organization, webRequest) ?
+                                status(NOT_MODIFIED).cacheControl(cacheControl()).varyBy(ACCEPT).build() :
+                                ok()
+                                        .contentType(mediaType.get())
+                                        .cacheControl(cacheControl())
+                                        .varyBy(ACCEPT)
+                                        .body(organizationInformationCache.get(organization, fromCurrentContextPath().toUriString(), mediaType.get(), () -> render(organization, persistentEntityResourceAssembler))))
                 .orElse(notFound().build());
     }
+
+    /**
+     * The response is written as pre-rendered bytes, which bypasses the content negotiation of the message converters,
+     * so the requested media type is matched against the ones the HAL converter writes here.
+     */
+    private Optional<MediaType> negotiate(WebRequest webRequest) {
+        List<MediaType> acceptedMediaTypes;
+        try {
+            acceptedMediaTypes = ofNullable(webRequest.getHeaderValues(ACCEPT)).map(accept -> parseMediaTypes(asList(accept))).orElse(newArrayList(ALL));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        sortBySpecificityAndQuality(acceptedMediaTypes);
+        return acceptedMediaTypes.stream()
+                .flatMap(accepted -> supportedMediaTypes.stream().filter(accepted::isCompatibleWith))
+                .findFirst();
+    }
+
+    private static boolean notModified(Organization organization, WebRequest webRequest) {
+        return webRequest.checkNotModified(
+                String.valueOf(organization.getVersion()),
+                ofNullable(organization.getLastModifiedDate()).map(Instant::toEpochMilli).orElse(-1L));
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(ixorTalkConfigProperties.getOrganization().getApi().getOrganizationInformation().getMaxAge().getSeconds(), SECONDS).cachePublic();
+    }
+
+    private byte[] render(Organization organization, PersistentEntityResourceAssembler persistentEntityResourceAssembler) {
+        PersistentEntityResource resource = persistentEntityResourceAssembler.toFullResource(organization);
+        try {
+            return halJacksonHttpMessageConverter.getObjectMapper().writeValueAsBytes(representationModelProcessorInvoker.invokeProcessorsFor(resource, ResolvableType.forClass(PersistentEntityResource.class)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
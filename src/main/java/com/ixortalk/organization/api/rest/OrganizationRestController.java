@@ -26,12 +26,13 @@ package com.ixortalk.organization.api.rest;
 import com.ixortalk.organization.api.callback.api.OrganizationCallbackAPI;
 import com.ixortalk.organization.api.domain.EnhancedUserProjection;
 import com.ixortalk.organization.api.domain.Organization;
-import com.ixortalk.organization.api.domain.Status;
+import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
 import com.ixortalk.organization.api.events.OrganizationCascadedDeleteEvent;
 import com.ixortalk.organization.api.events.OrganizationEventHandler;
 import com.ixortalk.organization.api.events.RoleEventHandler;
 import com.ixortalk.organization.api.mail.InviteUserService;
+import com.ixortalk.organization.api.service.AcceptedOrganizationIdsCache;
 import com.ixortalk.organization.api.service.OrganizationService;
 import com.ixortalk.organization.api.service.UserEmailProvider;
 import org.springframework.context.ApplicationEventPublisher;
@@ -47,9 +48,9 @@ import javax.inject.Inject;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static java.util.stream.Collectors.toList;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.transaction.annotation.Propagation.SUPPORTS;
 
 @Transactional
 @RestController
@@ -62,6 +63,12 @@ public class OrganizationRestController {
     @Inject
     private OrganizationRestResource organizationRestResource;
 
+    @Inject
+    private UserRestResource userRestResource;
+
+    @Inject
+    private AcceptedOrganizationIdsCache acceptedOrganizationIdsCache;
+
     @Inject
     private InviteUserService inviteUserService;
 
@@ -83,10 +90,10 @@ public class OrganizationRestController {
     @DeleteMapping(path = "/{organizationId}/cascade")
     public ResponseEntity<?> deleteCascade(@PathVariable("organizationId") Long organizationId) {
         Organization organization = organizationRestResource.findById(organizationId).orElseThrow(ResourceNotFoundException::new);
-        organizationRestResource.delete(organization);
+        List<Role> roles = organizationService.deleteCascade(organization);
         organizationCallbackAPI.organizationRemoved(organizationId);
         organizationEventHandler.handleAfterDelete(organization);
-        organization.getRoles().forEach(role -> roleEventHandler.handleAfterDelete(role));
+        roles.forEach(role -> roleEventHandler.handleAfterDelete(role));
         applicationEventPublisher.publishEvent(new OrganizationCascadedDeleteEvent(organization));
         return noContent().build();
     }
@@ -113,6 +120,7 @@ public class OrganizationRestController {
     }
 
     @GetMapping(path = "/search/findAcceptedOrganizationIds")
+    @Transactional(propagation = SUPPORTS, readOnly = true)
     public List<Long> findAcceptedOrganizationIds() {
         return userEmailProvider.getCurrentUsersEmail()
                 .map(this::findAcceptedOrganizationIds)
@@ -121,7 +129,9 @@ public class OrganizationRestController {
 
     @GetMapping(path = "/search/findAcceptedOrganizationIds", params = {"userId"})
     @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isCurrentUser(#userId)")
+    @Transactional(propagation = SUPPORTS, readOnly = true)
     public List<Long> findAcceptedOrganizationIds(@RequestParam(name = "userId") String userId) {
-        return organizationRestResource.findByUsersLoginAndUsersStatus(userId.toLowerCase(), Status.ACCEPTED).stream().map(Organization::getId).collect(toList());
+        String login = userId.toLowerCase();
+        return acceptedOrganizationIdsCache.get(login, () -> userRestResource.findAcceptedOrganizationIdsByLogin(login));
     }
 }
@@ -23,92 +23,130 @@
  */
 package com.ixortalk.organization.api.rest;
 
+import com.ixortalk.organization.api.authorization.Authorize;
+import com.ixortalk.organization.api.authorization.AuthorizeResult;
 import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.OrganizationSummary;
 import com.ixortalk.organization.api.domain.Role;
-import com.ixortalk.organization.api.domain.Status;
 import com.ixortalk.organization.api.domain.User;
 import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
-import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.parameters.P;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.Optional;
 
+import static com.ixortalk.organization.api.authorization.AuthorizationRule.*;
+import static com.ixortalk.organization.api.service.SecurityService.ROLE_ADMIN;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.springframework.security.core.context.SecurityContextHolder.getContext;
+
 @RepositoryRestResource
-@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Authorize(ADMIN)
 public interface OrganizationRestResource extends PagingAndSortingRepository<Organization, Long>,
         QuerydslPredicateExecutor<Organization> {
 
     @Override
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
     Collection<Organization> findAll();
 
     @Override
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
     Iterable<Organization> findAll(Sort sort);
 
+    /**
+     * Admins page over all organizations, organization admins over the organizations they administer.  Two separate
+     * queries, so neither has to join every organization with its users and collapse them again with a distinct.
+     */
     @Override
-    @PreAuthorize("permitAll()")
-    @Query("select distinct o" +
+    @Authorize(PERMIT_ALL)
+    default Page<Organization> findAll(Pageable pageable) {
+        boolean admin = getContext().getAuthentication().getAuthorities().stream().anyMatch(authority -> ROLE_ADMIN.equals(authority.getAuthority()));
+        return admin ? findAllOrganizations(pageable) : findAllAdministeredByCurrentUser(pageable);
+    }
+
+    @RestResource(exported = false)
+    @Query("select o from Organization o")
+    Page<Organization> findAllOrganizations(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select o" +
             " from Organization o" +
-            "   left outer join o.users u" +
-            " where ?#{ hasRole('ROLE_ADMIN') } = true or " +
-            "                (u.login = ?#{ @userEmailProvider.currentUsersEmail.orElse(null) } and u.isAdmin = true)")
-    Page<Organization> findAll(Pageable pageable);
+            " where o.id in (select u.organizationId from User u" +
+            "                where u.login = ?#{ @userEmailProvider.currentUsersEmail.orElse(null) } and u.isAdmin = true)")
+    Page<Organization> findAllAdministeredByCurrentUser(Pageable pageable);
 
     @Override
     @RestResource(exported = false)
-    @PreAuthorize("hasRole('ROLE_ADMIN')")
-    Page<Organization> findAll(@P("predicate") Predicate predicate, Pageable pageable);
+    @Authorize(ADMIN)
+    Page<Organization> findAll(Predicate predicate, Pageable pageable);
 
     @Override
-    @PreAuthorize("permitAll()")
-    @PostAuthorize("hasRole('ROLE_ADMIN') or (returnObject.present && @securityService.isAdminOfOrganization(returnObject))")
+    @Authorize(PERMIT_ALL)
+    @AuthorizeResult(FOUND_ORGANIZATION_ADMIN)
     Optional<Organization> findById(Long id);
 
     @RestResource(exported = false)
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Organization findOneById(Long id);
 
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @AuthorizeResult(FOUND_ORGANIZATION_ADMIN)
+    @EntityGraph(Organization.WITH_USERS_GRAPH)
+    Optional<Organization> findWithUsersById(Long id);
+
     @Override
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(#organization)" +
-            "or #organization.id == null")
-    <S extends Organization> S save(@P("organization") S organization);
+    @Authorize(NEW_ORGANIZATION_OR_ORGANIZATION_ADMIN)
+    <S extends Organization> S save(S organization);
 
     @Override
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(#organization)")
+    @Authorize(ORGANIZATION_ADMIN)
     void delete(Organization organization);
 
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Organization> findByName(String name);
 
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Organization> findByUsers(User user);
 
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
-    Optional<Organization> findByRoles(Role role);
+    Optional<OrganizationSummary> findSummaryByUsers(User user);
 
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
-    Collection<Organization> findByUsersLoginAndUsersStatus(String login, Status status);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<Organization> findByRoles(Role role);
 
-    @PreAuthorize("permitAll()")
+    /**
+     * Expects the organization's users and roles to be deleted already, see {@code OrganizationService.deleteCascade}.
+     * Clears the persistence context, so the deleted organization isn't flushed or cascaded anymore.
+     */
     @RestResource(exported = false)
-    @Query("from Organization o where exists(from Organization o2, User u2 where " +
-            ":user member of o2.users and o2.id = o.id and u2 in elements(o2.users) and u2.login = :login and u2.isAdmin = true)")
-    Optional<Organization> hasAdminAccessToUser(String login, User user);
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from organization where id = :id", nativeQuery = true)
+    int bulkDeleteById(@Param("id") Long id);
 }
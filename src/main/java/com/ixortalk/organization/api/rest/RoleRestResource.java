@@ -23,24 +23,32 @@
  */
 package com.ixortalk.organization.api.rest;
 
+import com.ixortalk.organization.api.authorization.Authorize;
+import com.ixortalk.organization.api.authorization.AuthorizeResult;
 import com.ixortalk.organization.api.domain.Role;
 import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
-import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.parameters.P;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static com.ixortalk.organization.api.authorization.AuthorizationRule.*;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @RepositoryRestResource
-@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Authorize(ADMIN)
 public interface RoleRestResource extends PagingAndSortingRepository<Role, Long>,
         QuerydslPredicateExecutor<Role> {
 
@@ -48,19 +56,20 @@ public interface RoleRestResource extends PagingAndSortingRepository<Role, Long>
     String FIND_BY_ORGANIZATION_ID_AND_ROLE_QUERY = "from org_role o where (o.organization_id = :organizationId) and (o.name like %:role%)";
 
     @Override
-    @PreAuthorize("hasRole('ROLE_ADMIN') or #role.id == null or @securityService.hasAdminAccess(#role)")
-    <S extends Role> S save(@P("role") S role);
+    @Authorize(NEW_ROLE_OR_ORGANIZATION_ADMIN)
+    <S extends Role> S save(S role);
 
     @Override
-    @PreAuthorize("permitAll()")
-    @PostAuthorize("hasRole('ROLE_ADMIN') or @securityService.hasAdminAccess(returnObject)")
+    @Authorize(PERMIT_ALL)
+    @AuthorizeResult(FOUND_ROLE_ORGANIZATION_ADMIN)
     Optional<Role> findById(Long id);
 
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRole(String name);
 
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(@organizationRestResource.findOneById(#organizationId))")
+    @Authorize(value = ORGANIZATION_ID_ADMIN, argument = 1)
     @Query(
             value = "select * " + FIND_BY_ORGANIZATION_ID_QUERY,
             countQuery = "select count(*) " + FIND_BY_ORGANIZATION_ID_QUERY,
@@ -69,10 +78,10 @@ public interface RoleRestResource extends PagingAndSortingRepository<Role, Long>
 
     @Override
     @RestResource(exported = false)
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.roleForOrganizationsWithOrganizationAdminAccess(#predicate)")
-    Page<Role> findAll(@P("predicate") Predicate predicate, Pageable pageable);
+    @Authorize(ROLES_OF_ADMINISTERED_ORGANIZATIONS)
+    Page<Role> findAll(Predicate predicate, Pageable pageable);
 
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(@organizationRestResource.findOneById(#organizationId))")
+    @Authorize(value = ORGANIZATION_ID_ADMIN, argument = 2)
     @Query(
             value = "select * " + FIND_BY_ORGANIZATION_ID_AND_ROLE_QUERY,
             countQuery = "select count(*) " + FIND_BY_ORGANIZATION_ID_AND_ROLE_QUERY,
@@ -80,6 +89,34 @@ public interface RoleRestResource extends PagingAndSortingRepository<Role, Long>
     Page<Role> findByOrganizationIdAndRole(Pageable pageable, @Param("role") String role, @Param("organizationId") Long organizationId);
 
     @Override
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.hasAdminAccess(#role)")
-    void delete(@P("role") Role role);
+    @Authorize(ROLE_ORGANIZATION_ADMIN)
+    void delete(Role role);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    List<Role> findByOrganizationIdIn(Collection<Long> organizationIds);
+
+    /**
+     * The columns of org_role_in_user are swapped, {@code user_id} holds the role (see {@code User.roles}).
+     */
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying
+    @Query(value = "delete from org_role_in_user where user_id = :roleId", nativeQuery = true)
+    int deleteUserLinks(@Param("roleId") Long roleId);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying
+    @Query(value = "delete from org_role_in_user where user_id in (select id from org_role where organization_id = :organizationId) or role_id in (select id from org_user where organization_id = :organizationId)", nativeQuery = true)
+    int bulkDeleteUserLinksByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying
+    @Query(value = "delete from org_role where organization_id = :organizationId", nativeQuery = true)
+    int bulkDeleteByOrganizationId(@Param("organizationId") Long organizationId);
 }
@@ -23,15 +23,15 @@
  */
 package com.ixortalk.organization.api.rest;
 
-import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Roles;
 import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.auth0.Auth0RoleSync;
 import com.ixortalk.organization.api.callback.api.OrganizationCallbackAPI;
-import com.ixortalk.organization.api.domain.Organization;
 import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
 import com.ixortalk.organization.api.error.BadRequestException;
 import com.ixortalk.organization.api.mail.InviteUserService;
 import com.ixortalk.organization.api.rest.dto.UserInOrganizationDTO;
+import com.ixortalk.organization.api.service.OrganizationService;
 import com.ixortalk.organization.api.service.SecurityService;
 import org.springframework.data.rest.webmvc.RepositoryRestController;
 import org.springframework.http.ResponseEntity;
@@ -54,7 +54,7 @@ import static org.springframework.http.ResponseEntity.noContent;
 public class UserRestController {
 
     @Inject
-    private OrganizationRestResource organizationRestResource;
+    private OrganizationService organizationService;
 
     @Inject
     private UserRestResource userRestResource;
@@ -69,7 +69,7 @@ public class UserRestController {
     private SecurityService securityService;
 
     @Inject
-    private Auth0Roles auth0Roles;
+    private Auth0RoleSync auth0RoleSync;
 
     @Inject
     private Auth0Users auth0Users;
@@ -94,9 +94,9 @@ public class UserRestController {
         return optionalUser
                 .map(user -> {
                     userRestResource.save(user.accepted());
-                    organizationCallbackAPI.userAccepted(new UserInOrganizationDTO(user.getLogin(), organizationRestResource.findByUsers(user).map(Organization::getId).orElseThrow(BadRequestException::new)));
+                    organizationCallbackAPI.userAccepted(new UserInOrganizationDTO(user.getLogin(), organizationService.getOrganizationId(user).orElseThrow(BadRequestException::new)));
                     auth0Users.unblockUser(user.getLogin());
-                    auth0Roles.assignRolesToUser(user.getLogin(), user.getRoles().stream().map(Role::getRole).collect(toSet()));
+                    auth0RoleSync.assignRoles(user.getLogin(), user.getRoles().stream().map(Role::getRole).collect(toSet()));
                     return noContent().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -107,7 +107,7 @@ public class UserRestController {
     @PreAuthorize("@securityService.isCurrentUserOrNotFound(#userId)")
     public ResponseEntity<?> declineInvite(@PathVariable("userId") Long userId) {
         return userRestResource.findById(userId).map(user ->
-                organizationRestResource.findByUsers(user)
+                organizationService.getOrganization(user)
                         .map(organization -> organization.removeUser(user))
                         .filter(removed -> removed)
                         .map(organization -> {
@@ -124,7 +124,7 @@ public class UserRestController {
                 .filter(User::isInvited)
                 .flatMap(
                         user ->
-                                organizationRestResource.findByUsers(user)
+                                organizationService.getOrganization(user)
                                         .map(organization -> {
                                             inviteUserService.inviteUser(user, organization);
                                             return noContent().build();
@@ -23,26 +23,35 @@
  */
 package com.ixortalk.organization.api.rest;
 
+import com.ixortalk.organization.api.authorization.Authorize;
+import com.ixortalk.organization.api.authorization.AuthorizeResult;
 import com.ixortalk.organization.api.domain.Status;
 import com.ixortalk.organization.api.domain.User;
 import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
-import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.parameters.P;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static com.ixortalk.organization.api.authorization.AuthorizationRule.*;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @RepositoryRestResource
-@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Authorize(ADMIN)
 public interface UserRestResource extends PagingAndSortingRepository<User, Long>,
         QuerydslPredicateExecutor<User>  {
 
@@ -50,37 +59,30 @@ public interface UserRestResource extends PagingAndSortingRepository<User, Long>
     String FIND_BY_ORGANIZATION_ID_AND_LOGIN_QUERY = "from org_user u where (u.organization_id = :organizationId) and (u.login like lower(concat('%', :login,'%')))";
 
     @Override
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN') " +
-            "or #user.id == null " +
-            "or @securityService.isCurrentUser(#user) " +
-            "or @securityService.hasAdminAccess(#user)")
-    <S extends User> S save(@P("user") S user);
+    @Authorize(NEW_USER_CURRENT_USER_OR_ORGANIZATION_ADMIN)
+    <S extends User> S save(S user);
 
     @Override
-    @PreAuthorize("permitAll()")
-    @PostAuthorize("hasAnyRole('ROLE_ADMIN')" +
-            "or !returnObject.isPresent() " +
-            "or @securityService.isCurrentUser(returnObject) " +
-            "or !@organizationRestResource.findByUsers(returnObject.get()).isPresent() " +
-            "or @securityService.hasAdminAccess(returnObject.get())")
+    @Authorize(PERMIT_ALL)
+    @AuthorizeResult(FOUND_USER_READ_ACCESS)
     Optional<User> findById(Long id);
 
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(@organizationRestResource.findOneById(#organizationId))")
+    @Authorize(value = ORGANIZATION_ID_ADMIN, argument = 1)
     @Query(
             value = "select * "+ FIND_BY_ORGANIZATION_ID_QUERY,
             countQuery = "select count(*) "+ FIND_BY_ORGANIZATION_ID_QUERY,
             nativeQuery = true)
     Page<User> findByOrganizationId(Pageable pageable, @Param("organizationId") Long organizationId);
 
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isCurrentUser(#login)")
+    @Authorize(CURRENT_LOGIN)
     Page<User> findAllByLoginAndStatus(String login, Status status, Pageable pageable);
 
     @Override
     @RestResource(exported = false)
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.userForOrganizationsWithOrganizationAdminAccess(#predicate)")
-    Page<User> findAll(@P("predicate") Predicate predicate, Pageable pageable);
+    @Authorize(USERS_OF_ADMINISTERED_ORGANIZATIONS)
+    Page<User> findAll(Predicate predicate, Pageable pageable);
 
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(@organizationRestResource.findOneById(#organizationId))")
+    @Authorize(value = ORGANIZATION_ID_ADMIN, argument = 1)
     @Query(
             value = "select * "+ FIND_BY_ORGANIZATION_ID_AND_LOGIN_QUERY,
             countQuery = "select count(*) "+ FIND_BY_ORGANIZATION_ID_AND_LOGIN_QUERY,
@@ -88,19 +90,67 @@ public interface UserRestResource extends PagingAndSortingRepository<User, Long>
     Page<User> findByOrganizationIdAndLogin(Pageable pageable, @Param("organizationId") Long organizationId, @Param("login") String login);
 
     @Override
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @securityService.isCurrentUser(#user) " +
-            "or @securityService.hasAdminAccess(#user)")
-    void delete(@P("user") User user);
+    @Authorize(CURRENT_USER_OR_ORGANIZATION_ADMIN)
+    void delete(User user);
 
     @RestResource(exported = false)
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     Optional<User> findByIdAndAcceptKeyAcceptKey(Long id, String acceptKey);
 
     @RestResource(exported = false)
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findOneById(Long id);
 
     @RestResource(exported = false)
-    @PreAuthorize("permitAll()")
+    @Authorize(PERMIT_ALL)
     Optional<User> findByLoginAndAcceptKeyAcceptKeyAndAcceptKeyAcceptKeyTimestampAfter(String login, String acceptKey, Instant timestamp);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select u.id from User u where u.status = com.ixortalk.organization.api.domain.Status.ACCEPTED and u.organizationId is not null and u.id > :afterId order by u.id")
+    List<Long> findAcceptedUserIdsInOrganizationAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select distinct u.organizationId from User u where u.login = :login and u.status = com.ixortalk.organization.api.domain.Status.ACCEPTED and u.organizationId is not null order by u.organizationId")
+    List<Long> findAcceptedOrganizationIdsByLogin(@Param("login") String login);
+
+    /**
+     * Joins the user with the admins of its own organization, so both sides are index lookups on org_user.
+     */
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select count(admin) from User member, User admin " +
+            "where member.id = :userId and admin.organizationId = member.organizationId and admin.login = :login and admin.isAdmin = true")
+    long countOrganizationAdmins(@Param("userId") Long userId, @Param("login") String login);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select count(u) from User u where u.organizationId = :organizationId and u.login = :login and u.isAdmin = true")
+    long countAdminsByOrganizationIdAndLogin(@Param("organizationId") Long organizationId, @Param("login") String login);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @EntityGraph(User.WITH_ROLES_GRAPH)
+    List<User> findByIdIn(Collection<Long> ids);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Query("select u.id from User u where u.acceptKey.acceptKeyTimestamp < :expiredBefore order by u.id")
+    List<Long> findIdsWithAcceptKeyTimestampBefore(@Param("expiredBefore") Instant expiredBefore, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying
+    @Query("update User u set u.acceptKey.acceptKey = null, u.acceptKey.acceptKeyTimestamp = null, u.version = u.version + 1, u.lastModifiedDate = :now where u.id in :ids")
+    int expireAcceptKeys(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @RestResource(exported = false)
+    @Authorize(PERMIT_ALL)
+    @Transactional
+    @Modifying
+    @Query(value = "delete from org_user where organization_id = :organizationId", nativeQuery = true)
+    int bulkDeleteByOrganizationId(@Param("organizationId") Long organizationId);
 }
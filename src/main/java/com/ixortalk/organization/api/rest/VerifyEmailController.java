@@ -25,10 +25,14 @@ package com.ixortalk.organization.api.rest;
 
 import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
 import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.Organization.Api.VerifyEmail;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.RateLimit;
 import com.ixortalk.organization.api.domain.User;
 import com.ixortalk.organization.api.mail.MailingService;
 import com.ixortalk.organization.api.mail.verify.SendVerifyEmailVO;
 import com.ixortalk.organization.api.mail.verify.TemplateVariables;
+import com.ixortalk.organization.api.ratelimit.ClientIpResolver;
+import com.ixortalk.organization.api.ratelimit.RateLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -37,6 +41,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
@@ -47,14 +52,21 @@ import java.util.Optional;
 import static java.time.Instant.now;
 import static java.time.temporal.ChronoUnit.HOURS;
 import static java.util.Collections.singletonMap;
+import static java.util.Locale.ROOT;
 import static org.springframework.cloud.commons.httpclient.ApacheHttpClientConnectionManagerFactory.HTTPS_SCHEME;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.http.ResponseEntity.status;
 import static org.springframework.web.util.UriComponentsBuilder.newInstance;
 
 @RestController
 @Validated
 public class VerifyEmailController {
 
+    public static final String EMAIL_LIMIT = "verify-email.email";
+    public static final String CLIENT_IP_LIMIT = "verify-email.client-ip";
+    public static final String TICKET_LIMIT = "verify-email.ticket";
+
     @Inject
     private Auth0Users auth0Users;
 
@@ -73,8 +85,24 @@ public class VerifyEmailController {
     @Inject
     private MailingService mailingService;
 
+    @Inject
+    private RateLimiter rateLimiter;
+
+    @Inject
+    private ClientIpResolver clientIpResolver;
+
     @GetMapping("/verify-email")
-    public ResponseEntity<?> verifyEmail(HttpServletResponse response, @RequestParam String state, @RequestParam String userId, @RequestParam @NotEmpty @Email String email, @RequestParam String acceptKey, @RequestParam String firstName, @RequestParam String lastName) throws IOException {
+    public ResponseEntity<?> verifyEmail(HttpServletRequest request, HttpServletResponse response, @RequestParam String state, @RequestParam String userId, @RequestParam @NotEmpty @Email String email, @RequestParam String acceptKey, @RequestParam String firstName, @RequestParam String lastName) throws IOException {
+        VerifyEmail verifyEmail = ixorTalkConfigProperties.getOrganization().getApi().getVerifyEmail();
+        String emailKey = email.toLowerCase(ROOT);
+        String clientIp = clientIpResolver.clientIp(request);
+        if (!rateLimiter.tryAcquire(EMAIL_LIMIT, emailKey, verifyEmail.getPerEmail())) {
+            return status(TOO_MANY_REQUESTS).build();
+        }
+        if (!rateLimiter.tryAcquire(CLIENT_IP_LIMIT, clientIp, verifyEmail.getPerClientIp())) {
+            rateLimiter.release(EMAIL_LIMIT, emailKey, verifyEmail.getPerEmail());
+            return status(TOO_MANY_REQUESTS).build();
+        }
 
         Optional<User> user =
                 userRestResource
@@ -83,6 +111,8 @@ public class VerifyEmailController {
                                 acceptKey,
                                 now(clock).minus(ixorTalkConfigProperties.getOrganization().getApi().getAcceptKeyMaxAgeInHours(), HOURS));
         if (user.isPresent()) {
+            rateLimiter.release(EMAIL_LIMIT, emailKey, verifyEmail.getPerEmail());
+            rateLimiter.release(CLIENT_IP_LIMIT, clientIp, verifyEmail.getPerClientIp());
             auth0Users.updateAppMetadata(email, singletonMap("acceptKeyVerified", true));
             response.sendRedirect(
                     newInstance()
@@ -92,19 +122,22 @@ public class VerifyEmailController {
                             .queryParam("state", state)
                             .toUriString());
         } else {
-            mailingService.send(new SendVerifyEmailVO(
-                    email,
-                    ixorTalkConfigProperties.getOrganization().getApi().getMail().getDefaultMailLanguageTag(),
-                    ixorTalkConfigProperties.getOrganization().getApi().getMail().getVerifyMailSubjectKey(),
-                    ixorTalkConfigProperties.getOrganization().getApi().getMail().getVerifyMailTemplate(),
-                    new TemplateVariables(
-                            auth0Users.createEmailVerificationTicket(
-                                    userId,
-                                    ixorTalkConfigProperties.getLoadbalancer().getExternal().getUrlWithoutStandardPorts(),
-                                    ixorTalkConfigProperties.getOrganization().getApi().getAcceptKeyMaxAgeInHours() * 3600),
-                            firstName,
-                            lastName)
-            ));
+            // Keyed on the recipient too, so a caller passing someone else's userId can't suppress their ticket.
+            if (rateLimiter.tryAcquire(TICKET_LIMIT, userId + " " + emailKey, new RateLimit(1, verifyEmail.getTicketDedupeWindow()))) {
+                mailingService.send(new SendVerifyEmailVO(
+                        email,
+                        ixorTalkConfigProperties.getOrganization().getApi().getMail().getDefaultMailLanguageTag(),
+                        ixorTalkConfigProperties.getOrganization().getApi().getMail().getVerifyMailSubjectKey(),
+                        ixorTalkConfigProperties.getOrganization().getApi().getMail().getVerifyMailTemplate(),
+                        new TemplateVariables(
+                                auth0Users.createEmailVerificationTicket(
+                                        userId,
+                                        ixorTalkConfigProperties.getLoadbalancer().getExternal().getUrlWithoutStandardPorts(),
+                                        ixorTalkConfigProperties.getOrganization().getApi().getAcceptKeyMaxAgeInHours() * 3600),
+                                firstName,
+                                lastName)
+                ));
+            }
             response.sendRedirect(
                             ixorTalkConfigProperties.getLoadbalancer().getExternal().getUrlWithoutStandardPorts() + ixorTalkConfigProperties.getOrganization().getApi().getVerifyEmailLandingPagePath()
             );
@@ -0,0 +1,71 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.rest.UserRestResource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static java.time.Instant.now;
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.springframework.data.domain.PageRequest.of;
+
+/**
+ * Clears accept keys older than {@code inviteKeyMaxAgeInHours} in batches.  The key doubles as the invite key, so it
+ * outlives {@code acceptKeyMaxAgeInHours}, which only bounds email verification.  Expired invites can be resent, which
+ * generates a new key.
+ */
+@Named
+public class AcceptKeySweeper {
+
+    @Inject
+    private UserRestResource userRestResource;
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private Clock clock;
+
+    @Scheduled(fixedDelayString = "${ixortalk.organization.api.accept-key-sweep-interval:PT1H}")
+    public void sweep() {
+        IxorTalkConfigProperties.Organization.Api api = ixorTalkConfigProperties.getOrganization().getApi();
+        Instant sweptAt = now(clock);
+        Instant expiredBefore = sweptAt.minus(api.getInviteKeyMaxAgeInHours(), HOURS);
+
+        List<Long> userIds;
+        do {
+            userIds = userRestResource.findIdsWithAcceptKeyTimestampBefore(expiredBefore, of(0, api.getAcceptKeySweepBatchSize()));
+            if (!userIds.isEmpty()) {
+                userRestResource.expireAcceptKeys(userIds, sweptAt);
+            }
+        } while (userIds.size() == api.getAcceptKeySweepBatchSize());
+    }
+}
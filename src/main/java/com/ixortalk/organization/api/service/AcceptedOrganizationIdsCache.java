@@ -0,0 +1,92 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.google.common.cache.Cache;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.Organization.Api.AcceptedOrganizationIds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Locale.ROOT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Ids of the organizations a login has accepted, evicted whenever a user with that login is written (see
+ * {@code AcceptedOrganizationIdsCacheEvictionListener}).  The time to live bounds how long another instance serves a
+ * stale list.
+ */
+@Named
+public class AcceptedOrganizationIdsCache {
+
+    public static final String CACHE_NAME = "organization.accepted.organization.ids";
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, List<Long>> acceptedOrganizationIds;
+
+    @PostConstruct
+    public void createCache() {
+        AcceptedOrganizationIds config = ixorTalkConfigProperties.getOrganization().getApi().getAcceptedOrganizationIds();
+        acceptedOrganizationIds =
+                newBuilder()
+                        .maximumSize(config.getCacheSize())
+                        .expireAfterWrite(config.getTimeToLive().toMillis(), MILLISECONDS)
+                        .recordStats()
+                        .build();
+        GuavaCacheMetrics.monitor(meterRegistry, acceptedOrganizationIds, CACHE_NAME);
+    }
+
+    public List<Long> get(String login, Supplier<List<Long>> load) {
+        String key = login.toLowerCase(ROOT);
+        List<Long> organizationIds = acceptedOrganizationIds.getIfPresent(key);
+        if (organizationIds == null) {
+            organizationIds = unmodifiableList(load.get());
+            acceptedOrganizationIds.put(key, organizationIds);
+        }
+        return organizationIds;
+    }
+
+    public void evict(String login) {
+        if (login != null) {
+            acceptedOrganizationIds.invalidate(login.toLowerCase(ROOT));
+        }
+    }
+
+    public void evictAll() {
+        acceptedOrganizationIds.invalidateAll();
+    }
+}
@@ -59,7 +59,11 @@ public class AssetMgmtFacade {
     }
 
     public Stream<Asset> getDevicesFromAssetMgmt(Organization organization) {
-        return assetMgmt.getAssets(organization.getOrganizationId()).stream();
+        return getDevicesFromAssetMgmt(organization.getOrganizationId());
+    }
+
+    public Stream<Asset> getDevicesFromAssetMgmt(OrganizationId organizationId) {
+        return assetMgmt.getAssets(organizationId).stream();
     }
 
     public Optional<Asset> getOwnedDevice(DeviceInOrganizationDTO deviceInOrganizationDTO) {
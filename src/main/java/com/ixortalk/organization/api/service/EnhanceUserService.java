@@ -26,7 +26,6 @@ package com.ixortalk.organization.api.service;
 import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
 import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.UserInfo;
 import com.ixortalk.organization.api.domain.User;
-import com.ixortalk.organization.api.rest.OrganizationRestResource;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -35,13 +34,13 @@ import javax.inject.Named;
 public class EnhanceUserService {
 
     @Inject
-    private OrganizationRestResource organizationRestResource;
+    private OrganizationService organizationService;
 
     @Inject
     private Auth0Users auth0Users;
 
     public UserInfo getUserInfo(User user) {
-        if (user.isAccepted() && organizationRestResource.findByUsers(user).isPresent())
+        if (user.isAccepted() && organizationService.getOrganizationId(user).isPresent())
             return auth0Users.getUserInfo(user.getLogin()).orElse(null);
         return null;
     }
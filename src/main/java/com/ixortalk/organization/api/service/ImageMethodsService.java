@@ -24,27 +24,30 @@
 package com.ixortalk.organization.api.service;
 
 import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.domain.ImageRendition;
 import com.ixortalk.organization.api.domain.Organization;
-import com.ixortalk.organization.api.image.ImageService;
+import com.ixortalk.organization.api.image.ImageRenditionService;
+import com.ixortalk.organization.api.image.StreamingImageServiceClient;
+import com.ixortalk.organization.api.image.StreamingImageUpload;
+import com.ixortalk.organization.api.image.ValidatedImage;
 import com.ixortalk.organization.api.rest.OrganizationRestResource;
-import feign.Response;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.transaction.Transactional;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
-import java.util.function.BiFunction;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.notFound;
 
 @Named
-@Transactional
 public class ImageMethodsService {
 
     @Inject
@@ -54,7 +57,13 @@ public class ImageMethodsService {
     private OrganizationRestResource organizationRestResource;
 
     @Inject
-    private ImageService imageService;
+    private StreamingImageServiceClient streamingImageServiceClient;
+
+    @Inject
+    private ImageRenditionService imageRenditionService;
+
+    @Inject
+    private OrganizationInformationCache organizationInformationCache;
 
     public String constructImageLink(String imageKey) {
         if (imageKey == null) return null;
@@ -64,19 +73,35 @@ public class ImageMethodsService {
                         ixorTalkConfigProperties.getMicroservice("image-service").getDownloadPath() + "/" + imageKey;
     }
 
-    public ResponseEntity<?> uploadToImageService(Long organizationId, MultipartFile multipartFile, BiFunction<Organization, String, Organization> function, String keyName) {
-        return organizationRestResource.findById(organizationId)
-                .map(organization -> {
-                            Response response = imageService.uploadImage(multipartFile, "organizations/" + organizationId + "/" + keyName);
-                            String location = new ArrayList<>(response.headers().get(HttpHeaders.LOCATION)).get(0);
-                            organizationRestResource.save(function.apply(organization, location));
-                            try {
-                                return created(new URI(location)).build();
-                            } catch (URISyntaxException e) {
-                                throw new IllegalArgumentException("Could not save image: " + e.getMessage());
-                            }
-                        }
-                )
-                .orElse(notFound().build());
+    public ResponseEntity<?> uploadToImageService(Long organizationId, HttpServletRequest request, OrganizationImageSetter setter, String keyName) throws IOException, MissingServletRequestPartException {
+        StreamingImageUpload upload = streamingImageServiceClient.readFileRequestPart(request);
+        Optional<Organization> organization = organizationRestResource.findById(organizationId);
+        if (!organization.isPresent()) {
+            return notFound().build();
+        }
+
+        String key = "organizations/" + organizationId + "/" + keyName;
+        try (ValidatedImage image = imageRenditionService.validate(upload)) {
+            String location = streamingImageServiceClient.upload(image.toUpload(), key, keyName);
+
+            Map<ImageRendition, String> renditionLocations = new EnumMap<>(ImageRendition.class);
+            for (Map.Entry<ImageRendition, StreamingImageUpload> rendition : imageRenditionService.render(image).entrySet()) {
+                renditionLocations.put(rendition.getKey(), streamingImageServiceClient.upload(rendition.getValue(), rendition.getKey().key(key), rendition.getKey().key(keyName)));
+            }
+
+            organizationRestResource.save(setter.apply(organization.get(), location, renditionLocations));
+            organizationInformationCache.evict(organizationId);
+            try {
+                return created(new URI(location)).build();
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Could not save image: " + e.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface OrganizationImageSetter {
+
+        Organization apply(Organization organization, String location, Map<ImageRendition, String> renditionLocations);
     }
-}
\ No newline at end of file
+}
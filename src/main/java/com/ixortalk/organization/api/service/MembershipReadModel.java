@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import com.ixortalk.organization.api.domain.Membership;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+
+import static com.google.common.collect.Iterables.partition;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newTreeSet;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Denormalised {@code login -> memberships} view over {@code org_user}, {@code org_role_in_user} and {@code org_role},
+ * so a login's organizations, admin flags and role names are a single index lookup.  Rows are rebuilt per login from
+ * the current transaction's state, see {@code MembershipReadModelListener}.
+ */
+@Named
+public class MembershipReadModel {
+
+    private static final int PARTITION_SIZE = 500;
+    private static final char ROLE_NAME_SEPARATOR = ',';
+
+    @Inject
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<String, List<Membership>> findByLogins(Collection<String> logins) {
+        Map<String, List<Membership>> memberships = newLinkedHashMap();
+        logins.forEach(login -> memberships.put(login, newArrayList()));
+        for (List<String> partition : partition(memberships.keySet(), PARTITION_SIZE)) {
+            jdbcTemplate.query(
+                    "select login, organization_id, is_admin, role_names from membership where login in (:logins) order by login, organization_id",
+                    singletonMap("logins", partition),
+                    rs -> {
+                        memberships.get(rs.getString("login")).add(new Membership(rs.getLong("organization_id"), rs.getBoolean("is_admin"), roleNames(rs.getString("role_names"))));
+                    });
+        }
+        return memberships;
+    }
+
+    public void refresh(Collection<String> logins, Collection<Long> organizationIds) {
+        Set<String> affectedLogins = newHashSet(logins);
+        if (!organizationIds.isEmpty()) {
+            affectedLogins.addAll(
+                    jdbcTemplate.queryForList(
+                            "select login from membership where organization_id in (:organizationIds) union select login from org_user where organization_id in (:organizationIds)",
+                            singletonMap("organizationIds", organizationIds),
+                            String.class));
+        }
+        affectedLogins.remove(null);
+        for (List<String> partition : partition(affectedLogins, PARTITION_SIZE)) {
+            refreshPartition(partition);
+        }
+    }
+
+    private void refreshPartition(List<String> logins) {
+        Map<String, List<String>> parameters = singletonMap("logins", logins);
+
+        // Concurrent refreshes of the same login would otherwise both insert its rows.
+        jdbcTemplate.query("select id from org_user where login in (:logins) order by id for update", parameters, rs -> {});
+        jdbcTemplate.update("delete from membership where login in (:logins)", parameters);
+
+        Table<String, Long, MembershipRow> rows = HashBasedTable.create();
+        // The columns of org_role_in_user are swapped: role_id holds the user and user_id the role.
+        jdbcTemplate.query(
+                "select u.login, u.organization_id, u.is_admin, r.role from org_user u " +
+                        "left join org_role_in_user ur on ur.role_id = u.id " +
+                        "left join org_role r on r.id = ur.user_id " +
+                        "where u.login in (:logins) and u.status = 'ACCEPTED' and u.organization_id is not null",
+                parameters,
+                rs -> {
+                    String login = rs.getString("login");
+                    long organizationId = rs.getLong("organization_id");
+                    MembershipRow row = rows.get(login, organizationId);
+                    if (row == null) {
+                        row = new MembershipRow(login, organizationId);
+                        rows.put(login, organizationId, row);
+                    }
+                    row.add(rs.getBoolean("is_admin"), rs.getString("role"));
+                });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "insert into membership (login, organization_id, is_admin, role_names) values (:login, :organizationId, :isAdmin, :roleNames)",
+                    rows.values().stream().map(MembershipRow::toParameters).toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    public void deleteByOrganizationId(Long organizationId) {
+        jdbcTemplate.update("delete from membership where organization_id = :organizationId", singletonMap("organizationId", organizationId));
+    }
+
+    /**
+     * Drops a role name from the memberships that have it, without rebuilding them.
+     */
+    public void removeRoleName(Long organizationId, String roleName) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("roleName", roleName).addValue("organizationId", organizationId);
+        jdbcTemplate.update(
+                "update membership " +
+                        "set role_names = trim(both ',' from replace(concat(',', role_names, ','), concat(',', :roleName, ','), ',')) " +
+                        "where concat(',', role_names, ',') like concat('%,', :roleName, ',%')" +
+                        (organizationId == null ? "" : " and organization_id = :organizationId"),
+                parameters);
+    }
+
+    /**
+     * Replaces a role name in the memberships that have it, without rebuilding them.  A role that had no name yet can't
+     * be found by it, so the memberships of its users are rebuilt instead.
+     */
+    public void renameRole(Long roleId, Long organizationId, String oldRoleName, String newRoleName) {
+        if (newRoleName == null) {
+            removeRoleName(organizationId, oldRoleName);
+            return;
+        }
+        if (oldRoleName == null) {
+            // The columns of org_role_in_user are swapped: role_id holds the user and user_id the role.
+            refresh(
+                    jdbcTemplate.queryForList(
+                            "select u.login from org_user u join org_role_in_user ur on ur.role_id = u.id where ur.user_id = :roleId",
+                            singletonMap("roleId", roleId),
+                            String.class),
+                    emptyList());
+            return;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("oldRoleName", oldRoleName).addValue("newRoleName", newRoleName).addValue("organizationId", organizationId);
+        jdbcTemplate.update(
+                "update membership " +
+                        "set role_names = trim(both ',' from replace(concat(',', role_names, ','), concat(',', :oldRoleName, ','), concat(',', :newRoleName, ','))) " +
+                        "where concat(',', role_names, ',') like concat('%,', :oldRoleName, ',%')" +
+                        (organizationId == null ? "" : " and organization_id = :organizationId"),
+                parameters);
+    }
+
+    /**
+     * Sorted on read, as renames replace names in place.
+     */
+    private static List<String> roleNames(String roleNames) {
+        return roleNames == null ? newArrayList() : newArrayList(newTreeSet(Splitter.on(ROLE_NAME_SEPARATOR).omitEmptyStrings().split(roleNames)));
+    }
+
+    private static class MembershipRow {
+
+        private final String login;
+        private final long organizationId;
+        private boolean isAdmin;
+        private final SortedSet<String> roleNames = newTreeSet();
+
+        private MembershipRow(String login, long organizationId) {
+            this.login = login;
+            this.organizationId = organizationId;
+        }
+
+        private void add(boolean isAdmin, String roleName) {
+            this.isAdmin |= isAdmin;
+            if (roleName != null) {
+                roleNames.add(roleName);
+            }
+        }
+
+        private SqlParameterSource toParameters() {
+            return new MapSqlParameterSource()
+                    .addValue("login", login)
+                    .addValue("organizationId", organizationId)
+                    .addValue("isAdmin", isAdmin)
+                    .addValue("roleNames", Joiner.on(ROLE_NAME_SEPARATOR).join(roleNames));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.google.common.cache.Cache;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
+import com.ixortalk.organization.api.domain.Organization;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.http.MediaType;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+
+/**
+ * Rendered {@code /organization-information} responses.  Links are built from the request, so the base uri is part of
+ * the key next to the organization id and version, and so is the negotiated media type.
+ */
+@Named
+public class OrganizationInformationCache {
+
+    public static final String CACHE_NAME = "organization.information";
+
+    @Inject
+    private IxorTalkConfigProperties ixorTalkConfigProperties;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private Cache<Key, byte[]> renderedResponses;
+
+    @PostConstruct
+    public void createCache() {
+        renderedResponses =
+                newBuilder()
+                        .maximumSize(ixorTalkConfigProperties.getOrganization().getApi().getOrganizationInformation().getCacheSize())
+                        .recordStats()
+                        .build();
+        GuavaCacheMetrics.monitor(meterRegistry, renderedResponses, CACHE_NAME);
+    }
+
+    public byte[] get(Organization organization, String baseUri, MediaType mediaType, Supplier<byte[]> render) {
+        Key key = new Key(organization.getId(), organization.getVersion(), baseUri, mediaType);
+        byte[] rendered = renderedResponses.getIfPresent(key);
+        if (rendered == null) {
+            rendered = render.get();
+            renderedResponses.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    public void evict(Long organizationId) {
+        renderedResponses.asMap().keySet().removeIf(key -> key.organizationId.equals(organizationId));
+    }
+
+    private static final class Key {
+
+        private final Long organizationId;
+        private final long version;
+        private final String baseUri;
+        private final MediaType mediaType;
+
+        private Key(Long organizationId, long version, String baseUri, MediaType mediaType) {
+            this.organizationId = organizationId;
+            this.version = version;
+            this.baseUri = baseUri;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return version == key.version && organizationId.equals(key.organizationId) && baseUri.equals(key.baseUri) && mediaType.equals(key.mediaType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(organizationId, version, baseUri, mediaType);
+        }
+    }
+}
@@ -24,19 +24,30 @@
 package com.ixortalk.organization.api.service;
 
 import com.ixortalk.organization.api.domain.EnhancedUserProjection;
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.OrganizationSummary;
+import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
 import com.ixortalk.organization.api.rest.OrganizationRestResource;
+import com.ixortalk.organization.api.rest.RoleRestResource;
+import com.ixortalk.organization.api.rest.UserRestResource;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.List;
+import java.util.Optional;
 
+import static java.util.Collections.singletonList;
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.hateoas.CollectionModel.wrap;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
 
 @Named
 public class OrganizationService {
@@ -44,11 +55,23 @@ public class OrganizationService {
     @Inject
     private OrganizationRestResource organizationRestResource;
 
+    @Inject
+    private UserRestResource userRestResource;
+
+    @Inject
+    private RoleRestResource roleRestResource;
+
+    @Inject
+    private MembershipReadModel membershipReadModel;
+
+    @Inject
+    private AcceptedOrganizationIdsCache acceptedOrganizationIdsCache;
+
     @Inject
     private ProjectionFactory projectionFactory;
 
     public CollectionModel<EntityModel<EnhancedUserProjection>> getAdminUsers(Long organizationId) {
-        return organizationRestResource.findById(organizationId)
+        return organizationRestResource.findWithUsersById(organizationId)
                 .map(organization ->
                         wrap(
                                 organization
@@ -60,4 +83,45 @@ public class OrganizationService {
                                         .collect(toList())))
                 .orElseThrow(ResourceNotFoundException::new);
     }
+
+    /**
+     * Resolves the organization through the user's organization_id column.  Users that are not flushed yet don't have it
+     * set, those fall back to a query for the organization's id.
+     */
+    public Optional<Long> getOrganizationId(User user) {
+        if (user.getOrganizationId() != null) {
+            return Optional.of(user.getOrganizationId());
+        }
+        return organizationRestResource.findSummaryByUsers(user).map(OrganizationSummary::getId);
+    }
+
+    public Optional<Organization> getOrganization(User user) {
+        return getOrganizationId(user).map(organizationRestResource::findOneById);
+    }
+
+    /**
+     * Deletes the organization, its users, its roles and their links with one statement per table instead of letting
+     * JPA cascade load and delete them one by one.  These statements bypass Hibernate's events, so the membership read
+     * model and the accepted organization ids are updated here.  Returns the deleted roles.
+     */
+    @Transactional
+    public List<Role> deleteCascade(Organization organization) {
+        Long organizationId = organization.getId();
+        List<Role> roles = roleRestResource.findByOrganizationIdIn(singletonList(organizationId));
+
+        roleRestResource.bulkDeleteUserLinksByOrganizationId(organizationId);
+        userRestResource.bulkDeleteByOrganizationId(organizationId);
+        roleRestResource.bulkDeleteByOrganizationId(organizationId);
+        organizationRestResource.bulkDeleteById(organizationId);
+        membershipReadModel.deleteByOrganizationId(organizationId);
+
+        acceptedOrganizationIdsCache.evictAll();
+        registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                acceptedOrganizationIdsCache.evictAll();
+            }
+        });
+        return roles;
+    }
 }
@@ -39,6 +39,7 @@ import java.util.Set;
 
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toSet;
+import static org.hibernate.Hibernate.isInitialized;
 import static org.springframework.security.core.context.SecurityContextHolder.getContext;
 
 @Named
@@ -53,6 +54,9 @@ public class SecurityService {
     @Inject
     private UserRestResource userRestResource;
 
+    @Inject
+    private OrganizationService organizationService;
+
     public final static String ROLE_ADMIN = "ROLE_ADMIN";
 
     public boolean isAdmin() {
@@ -88,22 +92,45 @@ public class SecurityService {
         return isAdminOfOrganization(organizationRestResource.findById(organizationId));
     }
 
+    /**
+     * Unlike {@link #isAdminOfOrganization(Long)} this uses the cached lookup and denies access to organizations that
+     * don't exist.
+     */
+    public boolean isAdminOfOrganizationWithId(Long organizationId) {
+        return ofNullable(organizationRestResource.findOneById(organizationId)).map(this::isAdminOfOrganization).orElse(false);
+    }
+
     public boolean isAdminOfOrganization(Optional<Organization> organization) {
         return organization.map(this::isAdminOfOrganization).orElseThrow(ResourceNotFoundException::new);
     }
 
     public boolean isAdminOfOrganization(Organization organization) {
-        return userEmailProvider.getCurrentUsersEmail().map(organization::hasAdminAccess).orElse(false);
+        return userEmailProvider.getCurrentUsersEmail().map(email -> hasAdminAccess(organization, email)).orElse(false);
+    }
+
+    /**
+     * Uses the organization's users when they are loaded or not persisted yet, rather than loading all of them to find
+     * one admin.
+     */
+    private boolean hasAdminAccess(Organization organization, String login) {
+        if (organization.getId() == null || isInitialized(organization.getUsers())) {
+            return organization.hasAdminAccess(login);
+        }
+        return userRestResource.countAdminsByOrganizationIdAndLogin(organization.getId(), login) > 0;
     }
 
     public boolean hasAdminAccess(User user) {
         //TODO investigate: line below makes the user-deletion tests fail because of https://stackoverflow.com/a/34843369
         //return organizationRestResource.findByUsers(user).map(this::isAdminOfOrganization).orElse(true);
         return userEmailProvider.getCurrentUsersEmail().map(
-                email -> organizationRestResource.hasAdminAccessToUser(email, user).isPresent()
+                email -> userRestResource.countOrganizationAdmins(user.getId(), email) > 0
         ).orElse(false);
     }
 
+    public boolean hasReadAccess(User user) {
+        return isCurrentUser(user) || !organizationService.getOrganizationId(user).isPresent() || hasAdminAccess(user);
+    }
+
     public boolean hasAdminAccess(Optional<Role> role) {
         return role.map(this::hasAdminAccess).orElseThrow(ResourceNotFoundException::new);
     }
@@ -23,8 +23,11 @@
  */
 package com.ixortalk.organization.api.service;
 
+import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.rest.RoleRestResource;
 import com.ixortalk.organization.api.rest.UserRestResource;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -34,6 +37,12 @@ public class UserService {
 
     @Inject
     private UserRestResource userRestResource;
+
+    @Inject
+    private RoleRestResource roleRestResource;
+
+    @Inject
+    private MembershipReadModel membershipReadModel;
     
     public User promoteToAdmin(User user) {
         user.setAdmin(true);
@@ -44,4 +53,13 @@ public class UserService {
         user.setAdmin(false);
         return userRestResource.save(user);
     }
+
+    /**
+     * Unlinks the role from all its users with a single statement instead of loading every user's roles.
+     */
+    @Transactional
+    public void removeRoleFromUsers(Role role) {
+        roleRestResource.deleteUserLinks(role.getId());
+        membershipReadModel.removeRoleName(role.getOrganizationId(), role.getRole());
+    }
 }
@@ -33,12 +33,14 @@ import com.ixortalk.organization.api.asset.DeviceId;
 import com.ixortalk.organization.api.config.IxorTalkConfigProperties;
 import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.*;
+import com.ixortalk.organization.api.feign.FeignClientResilience;
 import com.ixortalk.organization.api.rest.ImageController_UploadImage_IntegrationAndRestDocTest;
 import com.ixortalk.organization.api.rest.OrganizationRestResource;
 import com.ixortalk.organization.api.rest.RoleRestResource;
 import com.ixortalk.organization.api.rest.UserRestResource;
 import com.ixortalk.organization.api.rest.docs.RestDocDescriptors;
 import com.ixortalk.organization.api.util.RestResourcesTransactionalHelper;
+import com.ixortalk.organization.api.util.SqlStatementCounter;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
@@ -53,6 +55,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.cloud.openfeign.FeignContext;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.restdocs.JUnitRestDocumentation;
 import org.springframework.restdocs.headers.HeaderDescriptor;
 import org.springframework.restdocs.operation.preprocess.ContentModifyingOperationPreprocessor;
@@ -104,6 +107,7 @@ import static org.springframework.restdocs.operation.preprocess.Preprocessors.mo
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
 import static org.springframework.restdocs.restassured3.RestAssuredRestDocumentation.documentationConfiguration;
+import static org.springframework.test.util.AopTestUtils.getUltimateTargetObject;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 import static wiremock.com.google.common.net.HttpHeaders.*;
 
@@ -152,6 +156,8 @@ public abstract class AbstractSpringIntegrationTest  {
     protected static final String USER_IN_ORGANIZATION_Y_ADMIN_ROLE_FIRST_NAME = "userInOrganizationYAdminRoleFirstName";
     protected static final String USER_IN_ORGANIZATION_Y_ADMIN_ROLE_LAST_NAME = "userInOrganizationYAdminRoleLastName";
 
+    protected static final String BULK_LOGIN_PREFIX = "bulk-";
+
     protected static final ParameterDescriptor SORT_REQUEST_PARAM_DESCRIPTION = parameterWithName("sort").description("Indicates the field to use for sorting, optionally append `,asc`,`,desc`.");
     protected static final ParameterDescriptor PAGE_SIZE_REQUEST_PARAM_DESCRIPTION = parameterWithName("size").description("Optional parameter to overrule default page size.");
     public static final String USER_IN_ORGANIZATION_X_ACCEPTED_PROFILE_PICTURE_URL = "https://user-in-organization-x-accepted-profile-picture";
@@ -221,6 +227,15 @@ public abstract class AbstractSpringIntegrationTest  {
     @Inject
     protected Clock clock;
 
+    @Inject
+    protected FeignClientResilience feignClientResilience;
+
+    @Inject
+    protected SqlStatementCounter sqlStatementCounter;
+
+    @Inject
+    protected JdbcTemplate jdbcTemplate;
+
     protected Organization organizationX, organizationY, organizationZ;
 
     protected User userInOrganizationXCreated, userInOrganizationXInvited, userInOrganizationXAcceptedHavingARole, adminInOrganizationX, adminInOrganizationY, userInOrganizationY;
@@ -379,6 +394,10 @@ public abstract class AbstractSpringIntegrationTest  {
 
     @Before
     public void auth0MockedCalls() {
+        // The Auth0 beans are wrapped in a timing proxy, verify against the mocks behind it.
+        auth0Users = getUltimateTargetObject(auth0Users);
+        auth0Roles = getUltimateTargetObject(auth0Roles);
+
         when(auth0Users.userExists(USER_IN_ORGANIZATION_X_ADMIN_EMAIL)).thenReturn(true);
         when(auth0Users.getUserInfo(USER_IN_ORGANIZATION_X_ADMIN_EMAIL)).thenReturn(of(
                 aUserInfo()
@@ -444,12 +463,47 @@ public abstract class AbstractSpringIntegrationTest  {
         originalImageBytes = toByteArray(getClass().getClassLoader().getResourceAsStream("test-images/" + ImageController_UploadImage_IntegrationAndRestDocTest.ORIGINAL_IMAGE_FILE_NAME));
     }
 
+    @After
+    public void resetFeignClientResilience() {
+        feignClientResilience.reset();
+    }
+
     @After
     public void cleanCrudRepositories() {
+        jdbcTemplate.update("delete from org_role_in_user where role_id in (select id from org_user where login like ?)", BULK_LOGIN_PREFIX + "%");
+        jdbcTemplate.update("delete from org_user where login like ? or organization_id in (select id from organization where name like ?)", BULK_LOGIN_PREFIX + "%", BULK_LOGIN_PREFIX + "%");
+        jdbcTemplate.update("delete from organization where name like ?", BULK_LOGIN_PREFIX + "%");
         userRestResource.deleteAll();
         stream(crudRepositories).forEach(CrudRepository::deleteAll);
     }
 
+    /**
+     * Inserted with plain SQL, going through JPA for this many users would dominate the test.  The columns of
+     * org_role_in_user are swapped: role_id holds the user and user_id the role.
+     */
+    protected void insertUsersHavingRole(Organization organization, int numberOfUsers, Role role) {
+        jdbcTemplate.update(
+                "insert into org_user (id, login, status, organization_id) " +
+                        "select next value for hibernate_sequence, concat(?, x, '@organization.com'), 'ACCEPTED', ? from system_range(1, ?)",
+                BULK_LOGIN_PREFIX, organization.getId(), numberOfUsers);
+        jdbcTemplate.update(
+                "insert into org_role_in_user (role_id, user_id) select id, ? from org_user where login like ?",
+                role.getId(), BULK_LOGIN_PREFIX + "%");
+    }
+
+    /**
+     * Inserts the organizations with plain SQL as well, each having the given login as its only, admin, user.
+     */
+    protected void insertOrganizationsAdministeredBy(int numberOfOrganizations, String login) {
+        jdbcTemplate.update(
+                "insert into organization (id, name) select next value for hibernate_sequence, concat(?, x) from system_range(1, ?)",
+                BULK_LOGIN_PREFIX, numberOfOrganizations);
+        jdbcTemplate.update(
+                "insert into org_user (id, login, status, is_admin, organization_id) " +
+                        "select next value for hibernate_sequence, ?, 'ACCEPTED', true, id from organization where name like ?",
+                login, BULK_LOGIN_PREFIX + "%");
+    }
+
     protected String constructFullUri(String uri) throws MalformedURLException {
         return constructFullUri(uri, this.contextPath);
     }
@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.asset;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.asset.AssetTestBuilder.anAsset;
+import static com.ixortalk.organization.api.config.FeignHttpClientConfig.httpRoute;
+import static io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor.DEFAULT_URI_PATTERN_HEADER;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+
+public class AssetMgmt_HttpClient_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String SEARCH_ASSETS_URL = "/assetmgmt/assets/search/property";
+    private static final int NUMBER_OF_CALLS = 25;
+
+    @Inject
+    private AssetMgmt assetMgmt;
+
+    @Inject
+    private PoolingHttpClientConnectionManager feignConnectionManager;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void before() throws IOException {
+        assetMgmtWireMockRule.stubFor(
+                post(urlEqualTo(SEARCH_ASSETS_URL))
+                        .willReturn(okJson(objectMapper.writeValueAsString(newArrayList(anAsset().withDeviceId(TEST_DEVICE).build())))));
+    }
+
+    @Test
+    public void perHostPoolSizeConfigured() {
+        assertThat(feignConnectionManager.getMaxPerRoute(httpRoute(ixorTalkConfigProperties.getMicroservice("assetmgmt").getUrl()))).isEqualTo(5);
+        assertThat(feignConnectionManager.getDefaultMaxPerRoute()).isEqualTo(10);
+        assertThat(feignConnectionManager.getMaxTotal()).isEqualTo(50);
+    }
+
+    @Test
+    public void connectionsAreReused() {
+        range(0, NUMBER_OF_CALLS).forEach(i -> assertThat(assetMgmt.getAssets(organizationX.getOrganizationId())).hasSize(1));
+
+        assertThat(feignConnectionManager.getStats(httpRoute(ixorTalkConfigProperties.getMicroservice("assetmgmt").getUrl())).getAvailable()).isEqualTo(1);
+        assertThat(feignConnectionManager.getTotalStats().getLeased()).isZero();
+    }
+
+    @Test
+    public void compressionRequested() {
+        assetMgmt.getAssets(organizationX.getOrganizationId());
+
+        assetMgmtWireMockRule.verify(postRequestedFor(urlEqualTo(SEARCH_ASSETS_URL)).withHeader(ACCEPT_ENCODING, containing("gzip")));
+    }
+
+    @Test
+    public void uriPatternNotSentDownstream() {
+        assetMgmt.getAssets(organizationX.getOrganizationId());
+
+        assetMgmtWireMockRule.verify(postRequestedFor(urlEqualTo(SEARCH_ASSETS_URL)).withoutHeader(DEFAULT_URI_PATTERN_HEADER));
+    }
+
+    @Test
+    public void requestLatencyAndPoolUtilisationExported() {
+        double countBefore = requestTimerCount();
+
+        range(0, NUMBER_OF_CALLS).forEach(i -> assetMgmt.getAssets(organizationX.getOrganizationId()));
+
+        assertThat(requestTimerCount() - countBefore).isEqualTo(NUMBER_OF_CALLS);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "feign").gauge().value()).isEqualTo(50);
+    }
+
+    private double requestTimerCount() {
+        return meterRegistry.find("httpcomponents.httpclient.request").tag("uri", "AssetMgmt#getAssets(OrganizationId)").timers()
+                .stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.inject.Inject;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+@TestPropertySource(properties = {
+        "ixortalk.organization.auth0-role-sync.reconciliation-page-size=1",
+        "ixortalk.organization.auth0-role-sync.reconciliation-calls-per-second=1000",
+        "ixortalk.organization.auth0-role-sync.reconciliation-rate-limit-backoff=PT0.01S"
+})
+public class Auth0RoleReconciliation_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private Auth0RoleReconciliation auth0RoleReconciliation;
+
+    @Before
+    public void allRolesInAuth0() {
+        when(auth0Roles.getAllRoleNames()).thenReturn(newHashSet(ROLE_ONLY_IN_AUTH0, FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME, SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME, ROLE_IN_ORGANIZATION_Y_ROLE_NAME));
+    }
+
+    @Test
+    public void inSync() {
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles, never()).assignRolesToUser(anyString(), anySet());
+        verify(auth0Roles, never()).removeRolesFromUser(anyString(), anySet());
+        verify(auth0Roles, never()).addRole(anyString());
+    }
+
+    @Test
+    public void linkedRoleMissingInAuth0() {
+        when(auth0Roles.getUsersRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenReturn(newHashSet(ROLE_ONLY_IN_AUTH0));
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+        verify(auth0Roles, never()).removeRolesFromUser(anyString(), anySet());
+    }
+
+    @Test
+    public void unlinkedRoleStillInAuth0() {
+        when(auth0Roles.getUsersRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenReturn(newHashSet(ROLE_ONLY_IN_AUTH0, FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME, SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME, ROLE_IN_ORGANIZATION_Y_ROLE_NAME));
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles).removeRolesFromUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+        verify(auth0Roles, never()).assignRolesToUser(anyString(), anySet());
+    }
+
+    @Test
+    public void userNotInAuth0() {
+        when(auth0Users.userExists(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenReturn(false);
+        when(auth0Roles.getUsersRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenReturn(newHashSet());
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles, never()).assignRolesToUser(anyString(), anySet());
+    }
+
+    @Test
+    public void roleMissingInAuth0() {
+        when(auth0Roles.getAllRoleNames()).thenReturn(newHashSet(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME, ROLE_IN_ORGANIZATION_Y_ROLE_NAME));
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles).addRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+    }
+
+    @Test
+    public void rateLimitedCallRetried() {
+        when(auth0Users.userExists(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenThrow(tooManyRequests()).thenReturn(true);
+        when(auth0Roles.getUsersRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)).thenReturn(newHashSet(ROLE_ONLY_IN_AUTH0));
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+    }
+
+    @Test
+    public void runStoppedWhenRateLimitPersists() {
+        when(auth0Roles.getAllRoleNames()).thenThrow(tooManyRequests());
+
+        auth0RoleReconciliation.reconcile();
+
+        verify(auth0Roles, times(ixorTalkConfigProperties.getOrganization().getAuth0RoleSync().getMaxAttempts())).getAllRoleNames();
+        verify(auth0Users, never()).userExists(anyString());
+    }
+
+    private static HttpClientErrorException tooManyRequests() {
+        return HttpClientErrorException.create(TOO_MANY_REQUESTS, TOO_MANY_REQUESTS.getReasonPhrase(), new HttpHeaders(), new byte[0], UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.inject.Inject;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@TestPropertySource(properties = {
+        "ixortalk.organization.auth0-role-sync.asynchronous=true",
+        "ixortalk.organization.auth0-role-sync.max-attempts=3",
+        "ixortalk.organization.auth0-role-sync.retry-delay=PT0.05S",
+        "ixortalk.organization.auth0-role-sync.max-retry-delay=PT0.1S"
+})
+public class Auth0RoleSync_Asynchronous_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final int TIMEOUT_IN_MILLIS = 5000;
+
+    @Inject
+    private Auth0RoleSync auth0RoleSync;
+
+    @Test
+    public void appliedInTheBackground() {
+        auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        verify(auth0Roles, timeout(TIMEOUT_IN_MILLIS)).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+    }
+
+    @Test
+    public void failedChangeRetried() {
+        doThrow(new RuntimeException("Auth0 Management API unavailable"))
+                .doAnswer(invocation -> null)
+                .when(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        verify(auth0Roles, timeout(TIMEOUT_IN_MILLIS).times(2)).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+    }
+
+    @Test
+    public void retriesBounded() {
+        doThrow(new RuntimeException("Auth0 Management API unavailable"))
+                .when(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        verify(auth0Roles, timeout(TIMEOUT_IN_MILLIS).times(3)).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+        verify(auth0Roles, after(500).times(3)).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+    }
+
+    @Test
+    public void laterChangeTakesPrecedenceOverRetry() {
+        PendingRoleChanges pending = new PendingRoleChanges();
+        PendingRoleChanges failed = new PendingRoleChanges();
+        failed.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME, SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME), false);
+        pending.removeRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME), false);
+
+        pending.retryUserRoleChanges(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, failed.getUserRoleChanges().get(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL), 1);
+
+        assertThat(pending.getUserRoleChanges().get(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getRolesToAssign()).containsOnly(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+        assertThat(pending.getUserRoleChanges().get(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getRolesToRemove()).containsOnly(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.auth0;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_Y_ADMIN_EMAIL;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class Auth0RoleSync_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private Auth0RoleSync auth0RoleSync;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void changesInTransactionCoalesced() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            auth0RoleSync.assignRolesIfUserExists(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+            auth0RoleSync.assignRolesIfUserExists(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+            auth0RoleSync.removeRolesIfUserExists(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+            verifyZeroInteractions(auth0Roles);
+            return null;
+        });
+
+        verify(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+        verify(auth0Roles, never()).removeRolesFromUser(anyString(), anySet());
+    }
+
+    @Test
+    public void createdAndDeletedRoleCancelled() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            auth0RoleSync.createRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+            auth0RoleSync.deleteRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+            return null;
+        });
+
+        verifyZeroInteractions(auth0Roles);
+    }
+
+    @Test
+    public void deletedAndRecreatedRoleAppliedInOrder() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+            auth0RoleSync.deleteRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+            auth0RoleSync.createRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+            auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_Y_ADMIN_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+            return null;
+        });
+
+        InOrder inOrder = inOrder(auth0Roles);
+        inOrder.verify(auth0Roles).deleteRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+        inOrder.verify(auth0Roles).addRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+        inOrder.verify(auth0Roles).assignRolesToUser(USER_IN_ORGANIZATION_Y_ADMIN_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+        verify(auth0Roles, times(1)).deleteRole(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+        verify(auth0Roles, never()).assignRolesToUser(eq(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL), anySet());
+    }
+
+    @Test
+    public void rolledBackChangesDiscarded() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            auth0RoleSync.assignRoles(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL, newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        verifyZeroInteractions(auth0Roles);
+    }
+
+    @Test
+    public void userNotInAuth0() {
+        auth0RoleSync.assignRolesIfUserExists("not-in-auth0@organization-x.com", newHashSet(FIRST_ROLE_IN_ORGANIZATION_X_ROLE_NAME));
+
+        verify(auth0Roles, never()).assignRolesToUser(anyString(), anySet());
+    }
+}
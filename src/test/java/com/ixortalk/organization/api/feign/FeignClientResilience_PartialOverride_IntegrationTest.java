@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.feign;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.FeignConfig.Resilience;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.Test;
+
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofHours;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code application-test.yml} only overrides {@code max-concurrent-calls} and {@code wait-duration-in-open-state} for
+ * {@code assetMgmt}, and {@code max-concurrent-calls}, {@code minimum-number-of-calls} and {@code sliding-window-size}
+ * for {@code default}.
+ */
+public class FeignClientResilience_PartialOverride_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String ASSET_MGMT_CLIENT = "assetMgmt";
+
+    @Test
+    public void unsetPropertiesFallBackToDefaultClientThenBuiltIn() {
+        Resilience resilience = ixorTalkConfigProperties.getFeign().getResilience(ASSET_MGMT_CLIENT);
+
+        assertThat(resilience.getMaxConcurrentCalls()).isEqualTo(10);
+        assertThat(resilience.getWaitDurationInOpenState()).isEqualTo(ofSeconds(10));
+        assertThat(resilience.getMinimumNumberOfCalls()).isEqualTo(50);
+        assertThat(resilience.getSlidingWindowSize()).isEqualTo(100);
+        assertThat(resilience.getFailureRateThreshold()).isEqualTo(50f);
+        assertThat(resilience.getMaxWaitDuration()).isEqualTo(ZERO);
+        assertThat(resilience.getStaleResponseCacheSize()).isEqualTo(1000);
+        assertThat(resilience.getStaleResponseMaxAge()).isEqualTo(ofHours(1));
+    }
+
+    @Test
+    public void mergedSettingsConfigureTheCircuitBreaker() {
+        CircuitBreakerConfig circuitBreakerConfig = feignClientResilience.getCircuitBreaker(ASSET_MGMT_CLIENT).getCircuitBreakerConfig();
+
+        assertThat(circuitBreakerConfig.getMinimumNumberOfCalls()).isEqualTo(50);
+        assertThat(circuitBreakerConfig.getSlidingWindowSize()).isEqualTo(100);
+        assertThat(circuitBreakerConfig.getFailureRateThreshold()).isEqualTo(50f);
+    }
+
+    @Test
+    public void clientWithoutSettingsUsesDefaultClient() {
+        Resilience resilience = ixorTalkConfigProperties.getFeign().getResilience("mailservice");
+
+        assertThat(resilience.getMaxConcurrentCalls()).isEqualTo(20);
+        assertThat(resilience.getMinimumNumberOfCalls()).isEqualTo(50);
+        assertThat(resilience.getWaitDurationInOpenState()).isEqualTo(ofSeconds(30));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import com.ixortalk.organization.api.config.LinkTemplate;
+import com.ixortalk.organization.api.rest.OrganizationAdminController;
+import com.ixortalk.organization.api.rest.UserRestController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.config.LinkTemplate.linkTemplate;
+import static com.ixortalk.organization.api.loadtest.LoadTestSettings.LINK_ITERATIONS;
+import static java.lang.System.nanoTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.web.context.request.RequestContextHolder.resetRequestAttributes;
+import static org.springframework.web.context.request.RequestContextHolder.setRequestAttributes;
+
+/**
+ * Compares the cost of the links added to every user with {@link LinkTemplate}s against building them with
+ * {@code linkTo(methodOn(...))}.  Only runs with the {@code load-test} Maven profile.
+ */
+public class LinkBuildingLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LinkBuildingLoadTest.class);
+
+    private static final long ORGANIZATION_ID = 7L;
+
+    private static final LinkTemplate ACCEPT_INVITE = linkTemplate(UserRestController.class, "acceptInvite", Long.class);
+    private static final LinkTemplate DECLINE_INVITE = linkTemplate(UserRestController.class, "declineInvite", Long.class);
+    private static final LinkTemplate RESEND_INVITE = linkTemplate(UserRestController.class, "resendInvite", Long.class);
+    private static final LinkTemplate PROMOTE_TO_ADMIN = linkTemplate(OrganizationAdminController.class, "promoteToAdmin", Long.class, Long.class);
+    private static final LinkTemplate REMOVE_ADMIN_RIGHTS = linkTemplate(OrganizationAdminController.class, "removeAdminRights", Long.class, Long.class);
+
+    @Before
+    public void forwardedRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("www.ixortalk.com");
+        request.setServerPort(443);
+        request.setContextPath("/organization");
+        setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void resetRequest() {
+        resetRequestAttributes();
+    }
+
+    @Test
+    public void userLinks() {
+        LongFunction<List<Link>> methodOnLinks = userId -> newArrayList(
+                linkTo(methodOn(UserRestController.class).acceptInvite(userId)).withRel("accept-invite"),
+                linkTo(methodOn(UserRestController.class).declineInvite(userId)).withRel("decline-invite"),
+                linkTo(methodOn(UserRestController.class).resendInvite(userId)).withRel("resend-invite"),
+                linkTo(methodOn(OrganizationAdminController.class).promoteToAdmin(ORGANIZATION_ID, userId)).withRel("assignAdminRole"),
+                linkTo(methodOn(OrganizationAdminController.class).removeAdminRights(ORGANIZATION_ID, userId)).withRel("removeAdminRole"),
+                linkTo(methodOn(OrganizationAdminController.class).promoteToAdmin(ORGANIZATION_ID, userId)).withRel("promoteToAdmin"),
+                linkTo(methodOn(OrganizationAdminController.class).removeAdminRights(ORGANIZATION_ID, userId)).withRel("removeAdminRights"));
+        LongFunction<List<Link>> templateLinks = userId -> newArrayList(
+                ACCEPT_INVITE.expand("accept-invite", userId),
+                DECLINE_INVITE.expand("decline-invite", userId),
+                RESEND_INVITE.expand("resend-invite", userId),
+                PROMOTE_TO_ADMIN.expand("assignAdminRole", ORGANIZATION_ID, userId),
+                REMOVE_ADMIN_RIGHTS.expand("removeAdminRole", ORGANIZATION_ID, userId),
+                PROMOTE_TO_ADMIN.expand("promoteToAdmin", ORGANIZATION_ID, userId),
+                REMOVE_ADMIN_RIGHTS.expand("removeAdminRights", ORGANIZATION_ID, userId));
+
+        assertThat(templateLinks.apply(42L)).isEqualTo(methodOnLinks.apply(42L));
+        assertThat(templateLinks.apply(42L).get(0).getHref()).isEqualTo("https://www.ixortalk.com/organization/users/42/accept-invite");
+
+        measure(methodOnLinks);
+        measure(templateLinks);
+        long methodOnNanos = measure(methodOnLinks);
+        long templateNanos = measure(templateLinks);
+        LOGGER.info("user links: methodOn {} ns, template {} ns per user", methodOnNanos / LINK_ITERATIONS, templateNanos / LINK_ITERATIONS);
+
+        assertThat(templateNanos).isLessThan(methodOnNanos);
+    }
+
+    private static long measure(LongFunction<List<Link>> userLinks) {
+        int links = 0;
+        long start = nanoTime();
+        for (int i = 0; i < LINK_ITERATIONS; i++) {
+            links += userLinks.apply(i).size();
+        }
+        long nanos = nanoTime() - start;
+        assertThat(links).isEqualTo(7 * LINK_ITERATIONS);
+        return nanos;
+    }
+}
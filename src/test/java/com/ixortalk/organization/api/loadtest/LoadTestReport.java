@@ -0,0 +1,127 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps every latency per endpoint so exact percentiles can be reported at the end of a run.
+ */
+class LoadTestReport {
+
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    void startRecording() {
+        endpoints.clear();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(String endpoint, long durationInNanos, boolean success) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new EndpointStatistics()).record(durationInNanos, success);
+        }
+    }
+
+    long totalRequests() {
+        return endpoints.values().stream().mapToLong(EndpointStatistics::count).sum();
+    }
+
+    long totalErrors() {
+        return endpoints.values().stream().mapToLong(statistics -> statistics.errors.sum()).sum();
+    }
+
+    void write(Duration duration, PrintWriter writer) {
+        writer.println("endpoint,requests,errors,throughput_per_second,p50_ms,p99_ms,max_ms");
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> writer.println(entry.getKey() + "," + entry.getValue().row(duration)));
+        writer.flush();
+    }
+
+    void write(Duration duration, String file) throws IOException {
+        Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            write(duration, writer);
+        }
+    }
+
+    private static class EndpointStatistics {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long durationInNanos, boolean success) {
+            latencies.add(durationInNanos);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        long count() {
+            return latencies.size();
+        }
+
+        String row(Duration duration) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return String.format("%d,%d,%.1f,%.1f,%.1f,%.1f",
+                    sorted.length,
+                    errors.sum(),
+                    sorted.length * 1000d / duration.toMillis(),
+                    millis(percentile(sorted, 0.5)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import java.time.Duration;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+
+/**
+ * Load test settings, overridable as system properties, e.g. {@code mvn test -Pload-test -Dloadtest.threads=16}.
+ */
+class LoadTestSettings {
+
+    static final int THREADS = getInteger("loadtest.threads", 8);
+    static final int USERS_PER_ORGANIZATION = getInteger("loadtest.users-per-organization", 50);
+    static final Duration WARM_UP = Duration.parse(getProperty("loadtest.warm-up", "PT10S"));
+    static final Duration DURATION = Duration.parse(getProperty("loadtest.duration", "PT60S"));
+    static final double MAX_ERROR_RATE = Double.parseDouble(getProperty("loadtest.max-error-rate", "0.01"));
+    static final int AUTHORIZATION_ITERATIONS = getInteger("loadtest.authorization.iterations", 50_000);
+    static final int LINK_ITERATIONS = getInteger("loadtest.links.iterations", 20_000);
+    static final String REPORT_FILE = getProperty("loadtest.report", "target/load-test/report.csv");
+
+    static final int ASSET_MGMT_LATENCY_MILLIS = getInteger("loadtest.latency.assetmgmt", 40);
+    static final int MAILING_LATENCY_MILLIS = getInteger("loadtest.latency.mailing", 60);
+    static final int IMAGE_LATENCY_MILLIS = getInteger("loadtest.latency.image", 80);
+    static final int CALLBACK_LATENCY_MILLIS = getInteger("loadtest.latency.callback", 30);
+    static final int AUTH0_LATENCY_MILLIS = getInteger("loadtest.latency.auth0", 100);
+
+    private LoadTestSettings() {}
+}
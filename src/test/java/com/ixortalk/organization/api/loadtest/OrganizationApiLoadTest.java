@@ -0,0 +1,228 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.UserInfo;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.domain.EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME;
+import static com.ixortalk.organization.api.domain.UserTestBuilder.aUser;
+import static com.ixortalk.organization.api.loadtest.LoadTestSettings.*;
+import static com.ixortalk.organization.api.util.GraphQLUtil.withGraphQLQuery;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static java.lang.System.nanoTime;
+import static java.util.Optional.of;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.apache.http.HttpHeaders.LOCATION;
+import static org.apache.tomcat.util.http.fileupload.FileUploadBase.MULTIPART_FORM_DATA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
+
+/**
+ * Drives a mix of REST and GraphQL requests against the application with WireMock and Mockito stand-ins, with a
+ * configurable latency, for every downstream service.  Only runs with the {@code load-test} Maven profile, see
+ * {@link LoadTestSettings} for the settings.
+ */
+public class OrganizationApiLoadTest extends AbstractSpringIntegrationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrganizationApiLoadTest.class);
+
+    private final LoadTestReport report = new LoadTestReport();
+
+    private List<Scenario> scenarios;
+
+    @Before
+    public void standIns() {
+        RestAssured.requestSpecification = null;
+
+        assetMgmtWireMockRule.stubFor(any(anyUrl()).willReturn(okJson("[]").withFixedDelay(ASSET_MGMT_LATENCY_MILLIS)));
+        mailingServiceWireMockRule.stubFor(any(anyUrl()).willReturn(ok().withFixedDelay(MAILING_LATENCY_MILLIS)));
+        imageServiceWireMockRule.stubFor(any(anyUrl()).willReturn(ok().withHeader(LOCATION, "organizations/load-test/logo").withFixedDelay(IMAGE_LATENCY_MILLIS)));
+        organizationCallbackApiWireMockRule.stubFor(any(anyUrl()).willReturn(ok().withFixedDelay(CALLBACK_LATENCY_MILLIS)));
+
+        when(auth0Users.userExists(anyString())).thenAnswer(withAuth0Latency(invocation -> true));
+        when(auth0Users.getUserInfo(anyString())).thenAnswer(withAuth0Latency(invocation -> of(new UserInfo(invocation.<String>getArgument(0)))));
+        when(auth0Roles.getUsersRoles(anyString())).thenAnswer(withAuth0Latency(invocation -> newHashSet()));
+    }
+
+    @Before
+    public void organizationWithUsers() {
+        IntStream.range(0, USERS_PER_ORGANIZATION).forEach(i -> organizationX.getUsers().add(aUser().withLogin(nextString("load-test@organization-x.com")).withIsAdmin(i % 10 == 0).build()));
+        organizationX = organizationRestResource.save(organizationX);
+    }
+
+    @Before
+    public void scenarios() {
+        scenarios = newArrayList(
+                new Scenario("GET /organizations/{id}", 25, () ->
+                        given().auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                                .get("/organizations/{id}", organizationX.getId())),
+                new Scenario("GET /users/search/findByOrganizationId?projection=enhancedUser", 20, () ->
+                        given().auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                                .param("organizationId", organizationX.getId())
+                                .param("projection", ENHANCED_USER_PROJECTION_NAME)
+                                .get("/users/search/findByOrganizationId")),
+                new Scenario("GET /organizations/{id}/adminUsers", 10, () ->
+                        given().auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                                .get("/organizations/{id}/adminUsers", organizationX.getId())),
+                new Scenario("GET /organizations/{id}/devices", 10, () ->
+                        given().auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                                .contentType(JSON)
+                                .get("/organizations/{id}/devices", organizationX.getId())),
+                new Scenario("POST /graphql usersPage", 15, () ->
+                        withGraphQLQuery("{ usersPage(size: 20, filter:\"organizationId:" + organizationX.getId() + "\") { content { id login status isAdmin roles { id name } } } }", USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                                .post("/graphql")),
+                new Scenario("POST /graphql organizationsPage", 10, () ->
+                        withGraphQLQuery("{ organizationsPage(size: 10) { content { id name users { id login } roles { id name } } } }", ADMIN_JWT_TOKEN)
+                                .post("/graphql")),
+                new Scenario("POST /users/{id}/resend-invite", 5, () ->
+                        given().auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                                .post("/users/{id}/resend-invite", userInOrganizationXInvited.getId())),
+                new Scenario("POST /organizations/{id}/logo", 5, () ->
+                        given().auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                                .contentType(MULTIPART_FORM_DATA)
+                                .multiPart("file", "logo.png", originalImageBytes, IMAGE_PNG_VALUE)
+                                .post("/organizations/{organizationId}/logo", organizationX.getId())));
+    }
+
+    @Test
+    public void loadTest() throws Exception {
+        run(WARM_UP);
+
+        report.startRecording();
+        long start = nanoTime();
+        run(DURATION);
+        Duration measured = Duration.ofNanos(nanoTime() - start);
+        report.stopRecording();
+
+        report.write(measured, new PrintWriter(System.out));
+        report.write(measured, REPORT_FILE);
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat((double) report.totalErrors() / report.totalRequests()).isLessThanOrEqualTo(MAX_ERROR_RATE);
+    }
+
+    private void run(Duration duration) throws Exception {
+        ExecutorService workers = newFixedThreadPool(THREADS);
+        ScheduledExecutorService mockInvocationCleaner = newSingleThreadScheduledExecutor();
+        mockInvocationCleaner.scheduleAtFixedRate(() -> clearInvocations(auth0Users, auth0Roles), 1, 1, SECONDS);
+        long deadline = nanoTime() + duration.toNanos();
+        try {
+            List<Future<?>> running =
+                    IntStream.range(0, THREADS)
+                            .mapToObj(i -> workers.submit(() -> {
+                                while (nanoTime() < deadline) {
+                                    nextScenario().execute(report);
+                                }
+                            }))
+                            .collect(toList());
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } finally {
+            workers.shutdownNow();
+            mockInvocationCleaner.shutdownNow();
+        }
+    }
+
+    private Scenario nextScenario() {
+        int value = current().nextInt(scenarios.stream().mapToInt(Scenario::getWeight).sum());
+        for (Scenario scenario : scenarios) {
+            value -= scenario.getWeight();
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("No scenario selected");
+    }
+
+    private static <T> Answer<T> withAuth0Latency(Answer<T> answer) {
+        return invocation -> {
+            Thread.sleep(AUTH0_LATENCY_MILLIS);
+            return answer.answer(invocation);
+        };
+    }
+
+    private static class Scenario {
+
+        private final String name;
+        private final int weight;
+        private final Supplier<Response> request;
+
+        Scenario(String name, int weight, Supplier<Response> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        int getWeight() {
+            return weight;
+        }
+
+        void execute(LoadTestReport report) {
+            long start = nanoTime();
+            boolean success = false;
+            try {
+                success = request.get().statusCode() < 400;
+            } catch (RuntimeException e) {
+                LOGGER.debug("{} failed: {}", name, e.getMessage());
+            } finally {
+                report.record(name, nanoTime() - start, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.authorization.AuthorizationRule;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.domain.Status;
+import com.ixortalk.organization.api.rest.RoleRestResource;
+import com.ixortalk.organization.api.rest.UserRestResource;
+import com.ixortalk.organization.api.service.SecurityService;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import javax.inject.Inject;
+import java.lang.reflect.Method;
+import java.util.function.BooleanSupplier;
+
+import static com.ixortalk.organization.api.authorization.AuthorizationRule.*;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_EMAIL;
+import static com.ixortalk.organization.api.domain.Status.ACCEPTED;
+import static com.ixortalk.organization.api.loadtest.LoadTestSettings.AUTHORIZATION_ITERATIONS;
+import static java.lang.System.nanoTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.core.context.SecurityContextHolder.getContext;
+
+/**
+ * Compares the cost of the repository {@link AuthorizationRule}s with evaluating the {@code @PreAuthorize} expressions
+ * they replaced, the way Spring Security evaluates them on every invocation.  The caller isn't an admin, so the
+ * expressions get past {@code hasRole}.  Only runs with the {@code load-test} Maven profile.
+ */
+public class RepositoryAuthorizationLoadTest extends AbstractSpringIntegrationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryAuthorizationLoadTest.class);
+
+    @Inject
+    private ApplicationContext applicationContext;
+
+    @Inject
+    private SecurityService securityService;
+
+    private DefaultMethodSecurityExpressionHandler expressionHandler;
+
+    private Authentication authentication;
+
+    @Before
+    public void nonAdminAuthentication() {
+        expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+
+        authentication = new TestingAuthenticationToken(USER_IN_ORGANIZATION_X_ADMIN_EMAIL, null, "ROLE_USER");
+        getContext().setAuthentication(authentication);
+    }
+
+    @Test
+    public void currentLogin() throws NoSuchMethodException {
+        Object[] arguments = {USER_IN_ORGANIZATION_X_ADMIN_EMAIL, ACCEPTED, null};
+        compare(CURRENT_LOGIN, "hasRole('ROLE_ADMIN') or @securityService.isCurrentUser(#login)",
+                UserRestResource.class.getMethod("findAllByLoginAndStatus", String.class, Status.class, Pageable.class), arguments, arguments[0]);
+    }
+
+    @Test
+    public void organizationIdAdmin() throws NoSuchMethodException {
+        Object[] arguments = {null, organizationX.getId()};
+        compare(ORGANIZATION_ID_ADMIN, "hasRole('ROLE_ADMIN') or @securityService.isAdminOfOrganization(@organizationRestResource.findOneById(#organizationId))",
+                UserRestResource.class.getMethod("findByOrganizationId", Pageable.class, Long.class), arguments, arguments[1]);
+    }
+
+    @Test
+    public void newRoleOrOrganizationAdmin() throws NoSuchMethodException {
+        Object[] arguments = {firstRoleInOrganizationX};
+        compare(NEW_ROLE_OR_ORGANIZATION_ADMIN, "hasRole('ROLE_ADMIN') or #role.id == null or @securityService.hasAdminAccess(#role)",
+                RoleRestResource.class.getMethod("save", Role.class), arguments, arguments[0]);
+    }
+
+    private void compare(AuthorizationRule rule, String expression, Method method, Object[] arguments, Object subject) {
+        Expression parsed = expressionHandler.getExpressionParser().parseExpression(expression);
+        BooleanSupplier evaluateExpression = () -> ExpressionUtils.evaluateAsBoolean(parsed, expressionHandler.createEvaluationContext(authentication, new SimpleMethodInvocation(null, method, arguments)));
+        BooleanSupplier checkRule = () -> rule.isGranted(authentication, securityService, subject);
+
+        assertThat(checkRule.getAsBoolean()).isEqualTo(evaluateExpression.getAsBoolean());
+
+        measure(evaluateExpression);
+        measure(checkRule);
+        long expressionNanos = measure(evaluateExpression);
+        long ruleNanos = measure(checkRule);
+        LOGGER.info("{}: expression {} ns, rule {} ns per check", rule, expressionNanos / AUTHORIZATION_ITERATIONS, ruleNanos / AUTHORIZATION_ITERATIONS);
+
+        assertThat(ruleNanos).isLessThan(expressionNanos);
+    }
+
+    private static long measure(BooleanSupplier check) {
+        int granted = 0;
+        long start = nanoTime();
+        for (int i = 0; i < AUTHORIZATION_ITERATIONS; i++) {
+            granted += check.getAsBoolean() ? 1 : 0;
+        }
+        long nanos = nanoTime() - start;
+        assertThat(granted).isBetween(0, AUTHORIZATION_ITERATIONS);
+        return nanos;
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.loadtest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.util.SqlStatements;
+import io.restassured.path.json.JsonPath;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_EMAIL;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * The SQL shape checks of the features next to an organization X with tens of thousands of users and thousands of
+ * organizations administered by its admin, where a join or distinct too many would show.  The features' own tests run
+ * the same checks on a small fixture.  Only runs with the {@code load-test} Maven profile.
+ */
+public class SqlStatementBudgetLoadTest extends AbstractSpringIntegrationTest {
+
+    private static final int LARGE_ORGANIZATION_USERS = 50_000;
+
+    private static final int LARGE_NUMBER_OF_ORGANIZATIONS = 2_000;
+
+    private static final String DISTINCT = "(?is).*\\bdistinct\\b.*";
+    private static final String JOIN = "(?is).*\\bjoin\\b.*";
+    private static final String ORGANIZATION_TABLE = "(?is).*\\borganization\\b.*";
+    private static final String LOGIN_CONDITION = "(?is).*\\blogin\\s*=\\s*\\?.*";
+    private static final String USER_TABLE = "(?is).*\\borg_user\\b.*";
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void deleteRole() {
+        setField(userInOrganizationXAcceptedHavingARole, "roles", newArrayList(firstRoleInOrganizationX, secondRoleInOrganizationX));
+        userRestResource.save(userInOrganizationXAcceptedHavingARole);
+
+        SqlStatements statements = sqlStatementCounter.record(() -> deleteRole(firstRoleInOrganizationX));
+
+        insertUsersHavingRole(organizationX, LARGE_ORGANIZATION_USERS, secondRoleInOrganizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(() -> deleteRole(secondRoleInOrganizationX)), LARGE_ORGANIZATION_USERS, 0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from org_role_in_user where user_id = ?", Long.class, secondRoleInOrganizationX.getId())).isZero();
+    }
+
+    @Test
+    public void organizationsPageAsAdmin() {
+        insertLargeOrganizations();
+
+        SqlStatements statements = sqlStatementCounter.record(() -> getOrganizations(ADMIN_JWT_TOKEN));
+
+        assertThat(statements.getStatements()).noneMatch(statement -> statement.matches(DISTINCT) || statement.matches(USER_TABLE));
+        assertThat(getOrganizations(ADMIN_JWT_TOKEN).getLong("page.totalElements")).isEqualTo(LARGE_NUMBER_OF_ORGANIZATIONS + 3);
+    }
+
+    @Test
+    public void organizationsPageAsOrganizationAdmin() {
+        insertLargeOrganizations();
+
+        SqlStatements statements = sqlStatementCounter.record(() -> getOrganizations(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN));
+
+        assertThat(statements.getStatements()).noneMatch(statement -> statement.matches(DISTINCT) || (statement.matches(USER_TABLE) && statement.matches(JOIN)));
+        assertThat(getOrganizations(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN).getLong("page.totalElements")).isEqualTo(LARGE_NUMBER_OF_ORGANIZATIONS + 1);
+    }
+
+    @Test
+    public void organizationAsOrganizationAdmin() {
+        insertUsersHavingRole(organizationX, LARGE_ORGANIZATION_USERS, secondRoleInOrganizationX);
+
+        SqlStatements statements = sqlStatementCounter.record(() ->
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK));
+
+        assertThat(statements.getStatements()).allMatch(statement -> !statement.matches(USER_TABLE) || statement.matches(LOGIN_CONDITION));
+    }
+
+    /**
+     * Only with this many users does the plan show the admins are found through the login, is_admin, organization_id
+     * index rather than a scan of the organization's users.
+     */
+    @Test
+    public void adminAccessToUser() {
+        SqlStatements statements = sqlStatementCounter.record(this::countOrganizationAdminsOfInvitedUser).assertAtMost(1);
+
+        insertUsersHavingRole(organizationX, LARGE_ORGANIZATION_USERS, secondRoleInOrganizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::countOrganizationAdminsOfInvitedUser), LARGE_ORGANIZATION_USERS, 0);
+        String sql = statements.getStatements().get(0);
+        assertThat(sql).doesNotMatch(ORGANIZATION_TABLE).doesNotMatch("(?is).*\\bexists\\b.*");
+        assertThat(jdbcTemplate.queryForObject("explain " + sql, String.class, userInOrganizationXInvited.getId(), USER_IN_ORGANIZATION_X_ADMIN_EMAIL))
+                .containsIgnoringCase("org_user_login_is_admin_organization_idx");
+    }
+
+    private void insertLargeOrganizations() {
+        insertOrganizationsAdministeredBy(LARGE_NUMBER_OF_ORGANIZATIONS, USER_IN_ORGANIZATION_X_ADMIN_EMAIL);
+        insertUsersHavingRole(organizationX, LARGE_ORGANIZATION_USERS, secondRoleInOrganizationX);
+    }
+
+    private void countOrganizationAdminsOfInvitedUser() {
+        assertThat(userRestResource.countOrganizationAdmins(userInOrganizationXInvited.getId(), USER_IN_ORGANIZATION_X_ADMIN_EMAIL)).isPositive();
+    }
+
+    private JsonPath getOrganizations(String token) {
+        return given()
+                .auth().preemptive().oauth2(token)
+                .get("/organizations")
+                .then()
+                .statusCode(SC_OK)
+                .extract().jsonPath();
+    }
+
+    /**
+     * Unlinking the role with native SQL clears the second level cache, so both measurements start from a cold cache.
+     */
+    private void deleteRole(Role role) {
+        entityManagerFactory.getCache().evictAll();
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .delete("/roles/{id}", role.getId())
+                .then()
+                .statusCode(SC_NO_CONTENT);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.metrics;
+
+import com.ixortalk.autoconfigure.oauth2.auth0.mgmt.api.Auth0Users;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.ixortalk.organization.api.config.MethodMetricsConfig.AUTH0_METRIC;
+import static com.ixortalk.organization.api.config.MethodMetricsConfig.REPOSITORY_METRIC;
+import static com.ixortalk.organization.api.config.MethodMetricsConfig.SECURITY_METRIC;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_EMAIL;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.feign.FeignClientResilience.FEIGN_METRIC;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static java.util.Optional.ofNullable;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+public class MethodMetrics_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Inject
+    private Auth0Users timedAuth0Users;
+
+    @Test
+    public void securityRepositoryAndRepresentationTimed() {
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+
+        assertThat(meterRegistry.get(SECURITY_METRIC).tag("class", "SecurityService").tag("method", "isAdminOfOrganization").tag("outcome", "GRANTED").timer().count()).isPositive();
+        assertThat(meterRegistry.get(REPOSITORY_METRIC).tag("class", "OrganizationRestResource").tag("method", "findById").tag("outcome", "SUCCESS").timer().count()).isPositive();
+        assertThat(meterRegistry.get("organization.representation").tag("processor", "organization").tag("outcome", "SUCCESS").timer().count()).isPositive();
+    }
+
+    @Test
+    public void auth0CallsTimed() {
+        long userExistsCalls = ofNullable(meterRegistry.find(AUTH0_METRIC).tag("class", "Auth0Users").tag("method", "userExists").tag("outcome", "SUCCESS").timer())
+                .map(Timer::count)
+                .orElse(0L);
+
+        timedAuth0Users.userExists(USER_IN_ORGANIZATION_X_ADMIN_EMAIL);
+
+        assertThat(meterRegistry.get(AUTH0_METRIC).tag("class", "Auth0Users").tag("method", "userExists").tag("outcome", "SUCCESS").timer().count()).isEqualTo(userExistsCalls + 1);
+        verify(auth0Users).userExists(USER_IN_ORGANIZATION_X_ADMIN_EMAIL);
+    }
+
+    @Test
+    public void feignClientOutcomeTagged() {
+        assetMgmtWireMockRule.stubFor(post(urlEqualTo("/assetmgmt/assets/search/property")).willReturn(serverError()));
+        long serverErrors = getAssetsServerErrors();
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .get("/organizations/{id}/devices", organizationX.getId())
+                .then()
+                .statusCode(SC_INTERNAL_SERVER_ERROR);
+
+        assertThat(getAssetsServerErrors()).isEqualTo(serverErrors + 1);
+    }
+
+    private long getAssetsServerErrors() {
+        return ofNullable(meterRegistry.find(FEIGN_METRIC).tag("client", "assetMgmt").tag("method", "getAssets").tag("outcome", "SERVER_ERROR").timer())
+                .map(Timer::count)
+                .orElse(0L);
+    }
+}
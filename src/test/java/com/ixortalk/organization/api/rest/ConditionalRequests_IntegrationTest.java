@@ -0,0 +1,168 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.restassured.response.ValidatableResponse;
+import org.junit.Test;
+
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_PRECONDITION_FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+public class ConditionalRequests_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Test
+    public void unchangedOrganizationIsNotModified() {
+        String eTag = getOrganizationX().extract().header(ETAG);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_NONE_MATCH, eTag)
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void updatedOrganizationGetsANewETag() throws JsonProcessingException {
+        String eTag = getOrganizationX().extract().header(ETAG);
+
+        setField(organizationX, "name", nextString("Organization X renamed"));
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_MATCH, eTag)
+                .contentType(JSON)
+                .body(objectMapper.writeValueAsString(organizationX))
+                .put("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+
+        String newETag =
+                given()
+                        .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                        .header(IF_NONE_MATCH, eTag)
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().header(ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+    }
+
+    @Test
+    public void updateWithStaleETagIsRejected() throws JsonProcessingException {
+        String eTag = getOrganizationX().extract().header(ETAG);
+        setField(organizationX, "name", nextString("Organization X renamed"));
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_MATCH, eTag)
+                .contentType(JSON)
+                .body(objectMapper.writeValueAsString(organizationX))
+                .put("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+
+        setField(organizationX, "name", nextString("Organization X renamed again"));
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_MATCH, eTag)
+                .contentType(JSON)
+                .body(objectMapper.writeValueAsString(organizationX))
+                .put("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_PRECONDITION_FAILED);
+    }
+
+    @Test
+    public void unchangedOrganizationInformationIsNotModified() {
+        String eTag = getOrganizationXInformation().extract().header(ETAG);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_NONE_MATCH, eTag)
+                .get("/organization-information/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void organizationInformationNotModifiedSince() {
+        String lastModified = getOrganizationXInformation().extract().header(LAST_MODIFIED);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_MODIFIED_SINCE, lastModified)
+                .get("/organization-information/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void unchangedSearchResultsAreNotModified() {
+        String eTag =
+                given()
+                        .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                        .param("organizationId", organizationX.getId())
+                        .get("/users/search/findByOrganizationId")
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().header(ETAG);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_NONE_MATCH, eTag)
+                .param("organizationId", organizationX.getId())
+                .get("/users/search/findByOrganizationId")
+                .then()
+                .statusCode(SC_NOT_MODIFIED);
+    }
+
+    private ValidatableResponse getOrganizationX() {
+        return given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+    }
+
+    private ValidatableResponse getOrganizationXInformation() {
+        return given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .get("/organization-information/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.restassured.path.json.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import javax.inject.Inject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.lang.Math.max;
+import static org.apache.http.HttpHeaders.LOCATION;
+import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
+import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_REQUEST_TOO_LONG;
+import static org.apache.tomcat.util.http.fileupload.FileUploadBase.MULTIPART_FORM_DATA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
+import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
+
+public class ImageController_ImageRenditions_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String FILE_REQUEST_PART_NAME = "file";
+    private static final String THUMBNAIL_LOCATION = "the/key/thumbnail";
+    private static final String MAIL_LOCATION = "the/key/mail";
+
+    @Inject
+    private MultipartProperties multipartProperties;
+
+    @Before
+    public void before() {
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .willReturn(ok().withHeader(LOCATION, "the/key/original")));
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .withMultipartRequestBody(aMultipart().withName("key").withBody(equalTo(logoKey() + "-thumbnail")))
+                        .willReturn(ok().withHeader(LOCATION, THUMBNAIL_LOCATION)));
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .withMultipartRequestBody(aMultipart().withName("key").withBody(equalTo(logoKey() + "-mail")))
+                        .willReturn(ok().withHeader(LOCATION, MAIL_LOCATION)));
+    }
+
+    @Test
+    public void renditionsAreBounded() throws IOException {
+        uploadLogo(originalImageBytes, IMAGE_PNG_VALUE, SC_CREATED);
+
+        assertThat(longestSide(uploadedFile(logoKey() + "-thumbnail"))).isEqualTo(ixorTalkConfigProperties.getOrganization().getApi().getImage().getThumbnailSize());
+        assertThat(longestSide(uploadedFile(logoKey() + "-mail"))).isEqualTo(ixorTalkConfigProperties.getOrganization().getApi().getImage().getMailSize());
+        assertThat(uploadedFile(logoKey())).isEqualTo(originalImageBytes);
+    }
+
+    @Test
+    public void renditionLinks() {
+        uploadLogo(originalImageBytes, IMAGE_PNG_VALUE, SC_CREATED);
+
+        JsonPath jsonPath =
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .when()
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(jsonPath.getString("_links.logoThumbnail.href")).isEqualTo(IMAGE_DOWNLOAD_URL_PREFIX + THUMBNAIL_LOCATION);
+        assertThat(jsonPath.getString("_links.logoMail.href")).isEqualTo(IMAGE_DOWNLOAD_URL_PREFIX + MAIL_LOCATION);
+    }
+
+    @Test
+    public void notAnImage() {
+        uploadLogo("not an image".getBytes(), TEXT_PLAIN_VALUE, SC_BAD_REQUEST);
+
+        imageServiceWireMockRule.verify(0, postRequestedFor(urlPathEqualTo("/image/upload")));
+    }
+
+    @Test
+    public void dimensionsExceeded() throws IOException {
+        ByteArrayOutputStream tooWide = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(ixorTalkConfigProperties.getOrganization().getApi().getImage().getMaxWidth() + 1, 1, TYPE_INT_RGB), "png", tooWide);
+
+        uploadLogo(tooWide.toByteArray(), IMAGE_PNG_VALUE, SC_BAD_REQUEST);
+
+        imageServiceWireMockRule.verify(0, postRequestedFor(urlPathEqualTo("/image/upload")));
+    }
+
+    @Test
+    public void maxFileSizeExceeded() {
+        long maxFileSize = multipartProperties.getMaxFileSize().toBytes();
+
+        String body = uploadLogo(new byte[(int) maxFileSize + 1], IMAGE_PNG_VALUE, SC_REQUEST_TOO_LONG);
+
+        assertThat(body).startsWith("Payload Too Large - ").endsWith(" - maximum size " + maxFileSize + " bytes");
+        imageServiceWireMockRule.verify(0, postRequestedFor(urlPathEqualTo("/image/upload")));
+        assertThat(restResourcesTransactionalHelper.getOrganizations(organizationX.getId()).getLogo()).isEqualTo(organizationX.getLogo());
+    }
+
+    private String logoKey() {
+        return "organizations/" + organizationX.getId() + "/logo";
+    }
+
+    private byte[] uploadedFile(String key) {
+        return imageServiceWireMockRule.findAll(postRequestedFor(urlPathEqualTo("/image/upload"))
+                .withRequestBodyPart(aMultipart().withName("key").withBody(equalTo(key)).build()))
+                .stream()
+                .map(LoggedRequest::getParts)
+                .flatMap(parts -> parts.stream().filter(part -> FILE_REQUEST_PART_NAME.equals(part.getName())))
+                .map(part -> part.getBody().asBytes())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No upload for key " + key));
+    }
+
+    private static int longestSide(byte[] image) throws IOException {
+        BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(image));
+        return max(bufferedImage.getWidth(), bufferedImage.getHeight());
+    }
+
+    private String uploadLogo(byte[] bytes, String contentType, int expectedStatusCode) {
+        return given()
+                .auth().preemptive()
+                .oauth2(ADMIN_JWT_TOKEN)
+                .when()
+                .contentType(MULTIPART_FORM_DATA)
+                .multiPart(FILE_REQUEST_PART_NAME, "logo.png", bytes, contentType)
+                .post("/organizations/{organizationId}/logo", organizationX.getId())
+                .then()
+                .statusCode(expectedStatusCode)
+                .extract().asString();
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import javax.inject.Inject;
+import java.util.Optional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static org.apache.http.HttpHeaders.LOCATION;
+import static org.apache.http.HttpHeaders.TRANSFER_ENCODING;
+import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_REQUEST_TOO_LONG;
+import static org.apache.tomcat.util.http.fileupload.FileUploadBase.MULTIPART_FORM_DATA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
+
+public class ImageController_StreamingUpload_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String FILE_REQUEST_PART_NAME = "file";
+    private static final String IMAGE_LOCATION = "the/key/51aa812d-69fa-47d9-a880-30c9413a4ec9/original";
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Inject
+    private MultipartProperties multipartProperties;
+
+    @Before
+    public void before() {
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .willReturn(ok().withHeader(LOCATION, IMAGE_LOCATION)));
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .withMultipartRequestBody(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/logo")))
+                        .withMultipartRequestBody(aMultipart().withName("file").withBody(binaryEqualTo(originalImageBytes)))
+                        .willReturn(ok().withHeader(LOCATION, IMAGE_LOCATION)));
+    }
+
+    @Test
+    public void uploadIsStreamedAsChunkedMultipart() {
+        uploadLogo(originalImageBytes, SC_CREATED);
+
+        imageServiceWireMockRule.verify(1,
+                postRequestedFor(urlPathEqualTo("/image/upload"))
+                        .withHeader(TRANSFER_ENCODING, equalTo("chunked"))
+                        .withRequestBodyPart(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/logo")).build())
+                        .withRequestBodyPart(aMultipart().withName("file").withHeader("Content-Type", containing(IMAGE_PNG_VALUE)).build()));
+    }
+
+    @Test
+    public void uploadSizeExported() {
+        double totalAmountBefore = uploadSizeSummary().map(DistributionSummary::totalAmount).orElse(0d);
+
+        uploadLogo(originalImageBytes, SC_CREATED);
+
+        assertThat(uploadSizeSummary().map(DistributionSummary::totalAmount).orElse(0d) - totalAmountBefore).isEqualTo(originalImageBytes.length);
+        assertThat(meterRegistry.find("organization.image.upload.throughput").tag("target", "logo").summary()).isNotNull();
+    }
+
+    @Test
+    public void uploadExceedingMaxFileSize() {
+        uploadLogo(new byte[(int) multipartProperties.getMaxFileSize().toBytes() + 1], SC_REQUEST_TOO_LONG);
+
+        assertThat(restResourcesTransactionalHelper.getOrganizations(organizationX.getId()).getLogo()).isNotEqualTo(IMAGE_LOCATION);
+    }
+
+    private Optional<DistributionSummary> uploadSizeSummary() {
+        return Optional.ofNullable(meterRegistry.find("organization.image.upload.size").tag("target", "logo").summary());
+    }
+
+    private void uploadLogo(byte[] bytes, int expectedStatusCode) {
+        given()
+                .auth().preemptive()
+                .oauth2(ADMIN_JWT_TOKEN)
+                .when()
+                .contentType(MULTIPART_FORM_DATA)
+                .multiPart(FILE_REQUEST_PART_NAME, "original.png", bytes, IMAGE_PNG_VALUE)
+                .post("/organizations/{organizationId}/logo", organizationX.getId())
+                .then()
+                .statusCode(expectedStatusCode);
+    }
+}
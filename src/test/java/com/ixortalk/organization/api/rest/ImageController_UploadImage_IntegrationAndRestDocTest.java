@@ -101,8 +101,12 @@ public class ImageController_UploadImage_IntegrationAndRestDocTest extends Abstr
                         .extract()
                         .header("Location");
 
+        imageServiceWireMockRule.verify(3,
+                postRequestedFor(urlPathEqualTo("/image/upload"))
+        );
         imageServiceWireMockRule.verify(1,
                 postRequestedFor(urlPathEqualTo("/image/upload"))
+                        .withRequestBodyPart(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/image")).build())
         );
 
         assertThat(location).isEqualTo(IMAGE_LOCATION);
@@ -134,8 +138,12 @@ public class ImageController_UploadImage_IntegrationAndRestDocTest extends Abstr
                 .extract()
                 .header("Location");
 
+        imageServiceWireMockRule.verify(3,
+                postRequestedFor(urlPathEqualTo("/image/upload"))
+        );
         imageServiceWireMockRule.verify(1,
                 postRequestedFor(urlPathEqualTo("/image/upload"))
+                        .withRequestBodyPart(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/image")).build())
         );
 
         assertThat(location).isEqualTo(IMAGE_LOCATION);
@@ -25,6 +25,7 @@ package com.ixortalk.organization.api.rest;
 
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
 import com.ixortalk.organization.api.config.TestConstants;
+import com.ixortalk.organization.api.domain.Organization;
 import com.ixortalk.organization.api.util.RestResourcesTransactionalHelper;
 import org.junit.Before;
 import org.junit.Test;
@@ -53,6 +54,8 @@ public class ImageController_UploadLogo_IntegrationAndRestDocTest extends Abstra
     private static final String FILE_REQUEST_PART_NAME = "file";
     public static final String ORIGINAL_IMAGE_FILE_NAME = "original.png";
     private static final String IMAGE_LOCATION = "the/key/51aa812d-69fa-47d9-a880-30c9413a4ec9/original";
+    private static final String THUMBNAIL_LOCATION = "the/key/51aa812d-69fa-47d9-a880-30c9413a4ec9/thumbnail";
+    private static final String MAIL_LOCATION = "the/key/51aa812d-69fa-47d9-a880-30c9413a4ec9/mail";
 
     private static final PathParametersSnippet ORGANIZATION_ID_PATH_PARAMETER = pathParameters(
             parameterWithName("organizationId").description("The id of the organization.")
@@ -74,6 +77,18 @@ public class ImageController_UploadLogo_IntegrationAndRestDocTest extends Abstra
                         .withMultipartRequestBody(aMultipart().withName("file").withBody(binaryEqualTo(originalImageBytes)))
                         .andMatching(retrievedAdminTokenAuthorizationHeader())
                         .willReturn(ok().withHeader(LOCATION, IMAGE_LOCATION)));
+
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .withMultipartRequestBody(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/logo-thumbnail")))
+                        .andMatching(retrievedAdminTokenAuthorizationHeader())
+                        .willReturn(ok().withHeader(LOCATION, THUMBNAIL_LOCATION)));
+
+        imageServiceWireMockRule.stubFor(
+                post(urlPathEqualTo("/image/upload"))
+                        .withMultipartRequestBody(aMultipart().withName("key").withBody(equalTo("organizations/" + organizationX.getId() + "/logo-mail")))
+                        .andMatching(retrievedAdminTokenAuthorizationHeader())
+                        .willReturn(ok().withHeader(LOCATION, MAIL_LOCATION)));
     }
 
     @Test
@@ -92,10 +107,16 @@ public class ImageController_UploadLogo_IntegrationAndRestDocTest extends Abstra
                         .extract()
                         .header("Location");
 
-        imageServiceWireMockRule.verify(1, postRequestedFor(urlPathEqualTo("/image/upload")));
+        imageServiceWireMockRule.verify(3, postRequestedFor(urlPathEqualTo("/image/upload")));
+        imageServiceWireMockRule.verify(1,
+                postRequestedFor(urlPathEqualTo("/image/upload"))
+                        .withRequestBodyPart(aMultipart().withName("file").withBody(binaryEqualTo(originalImageBytes)).build()));
 
         assertThat(location).isEqualTo(IMAGE_LOCATION);
-        assertThat(restResourcesTransactionalHelper.getOrganizations(organizationX.getId()).getLogo()).isEqualTo(IMAGE_LOCATION);
+        Organization organization = restResourcesTransactionalHelper.getOrganizations(organizationX.getId());
+        assertThat(organization.getLogo()).isEqualTo(IMAGE_LOCATION);
+        assertThat(organization.getLogoThumbnail()).isEqualTo(THUMBNAIL_LOCATION);
+        assertThat(organization.getLogoMail()).isEqualTo(MAIL_LOCATION);
     }
 
     @Test
@@ -123,10 +144,16 @@ public class ImageController_UploadLogo_IntegrationAndRestDocTest extends Abstra
                 .extract()
                 .header("Location");
 
-        imageServiceWireMockRule.verify(1, postRequestedFor(urlPathEqualTo("/image/upload")));
+        imageServiceWireMockRule.verify(3, postRequestedFor(urlPathEqualTo("/image/upload")));
+        imageServiceWireMockRule.verify(1,
+                postRequestedFor(urlPathEqualTo("/image/upload"))
+                        .withRequestBodyPart(aMultipart().withName("file").withBody(binaryEqualTo(originalImageBytes)).build()));
 
         assertThat(location).isEqualTo(IMAGE_LOCATION);
-        assertThat(restResourcesTransactionalHelper.getOrganizations(organizationX.getId()).getLogo()).isEqualTo(IMAGE_LOCATION);
+        Organization organization = restResourcesTransactionalHelper.getOrganizations(organizationX.getId());
+        assertThat(organization.getLogo()).isEqualTo(IMAGE_LOCATION);
+        assertThat(organization.getLogoThumbnail()).isEqualTo(THUMBNAIL_LOCATION);
+        assertThat(organization.getLogoMail()).isEqualTo(MAIL_LOCATION);
     }
 
     @Test
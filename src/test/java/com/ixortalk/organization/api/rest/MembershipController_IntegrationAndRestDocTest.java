@@ -0,0 +1,246 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.restassured.path.json.JsonPath;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.restdocs.payload.ResponseFieldsSnippet;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.config.TestConstants.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static org.apache.http.HttpStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.*;
+import static org.springframework.restdocs.payload.JsonFieldType.*;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
+import static org.springframework.restdocs.restassured3.RestAssuredRestDocumentation.document;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+public class MembershipController_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
+
+    private static final ResponseFieldsSnippet RESPONSE_FIELDS_SNIPPET =
+            responseFields(
+                    fieldWithPath("login").type(STRING).description("The `login` of the user"),
+                    fieldWithPath("memberships[].organizationId").type(NUMBER).description("The id of an organization the user has accepted"),
+                    fieldWithPath("memberships[].isAdmin").type(BOOLEAN).description("Whether the user is admin in the organization"),
+                    fieldWithPath("memberships[].roles").type(ARRAY).description("The role names the user has in the organization")
+            );
+
+    private static final ResponseFieldsSnippet SEARCH_RESPONSE_FIELDS_SNIPPET =
+            responseFields(
+                    fieldWithPath("[].login").type(STRING).description("The `login` of the user"),
+                    fieldWithPath("[].memberships[].organizationId").type(NUMBER).description("The id of an organization the user has accepted"),
+                    fieldWithPath("[].memberships[].isAdmin").type(BOOLEAN).description("Whether the user is admin in the organization"),
+                    fieldWithPath("[].memberships[].roles").type(ARRAY).description("The role names the user has in the organization")
+            );
+
+    @After
+    public void restoreMaxLogins() {
+        ixorTalkConfigProperties.getOrganization().getApi().getMemberships().setMaxLogins(500);
+    }
+
+    @Test
+    public void ownMemberships() {
+        JsonPath result =
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ACCEPTED_JWT_TOKEN)
+                        .filter(
+                                document("memberships/find-by-login/ok",
+                                        preprocessRequest(staticUris(), prettyPrint()),
+                                        preprocessResponse(prettyPrint()),
+                                        requestHeaders(describeAuthorizationTokenHeader()),
+                                        pathParameters(parameterWithName("login").description("The `login` of the user")),
+                                        RESPONSE_FIELDS_SNIPPET
+                                ))
+                        .when()
+                        .get("/memberships/{login}", USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(result.getString("login")).isEqualTo(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL);
+        assertThat(result.getList("memberships.organizationId", Long.class)).containsExactly(organizationX.getId());
+        assertThat(result.getList("memberships.isAdmin", Boolean.class)).containsExactly(false);
+        assertThat(result.getList("memberships[0].roles", String.class)).containsExactly(SECOND_ROLE_IN_ORGANIZATION_X_ROLE_NAME);
+    }
+
+    @Test
+    public void otherUsersMembershipsAreForbidden() {
+        given()
+                .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                .when()
+                .get("/memberships/{login}", USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL)
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
+
+    @Test
+    public void singleQuery() {
+        assertThat(sqlStatementCounter.record(() -> findMemberships(USER_IN_ORGANIZATION_X_ADMIN_EMAIL)).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void unchangedMembershipsAreNotModified() {
+        String eTag =
+                given()
+                        .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                        .get("/memberships/{login}", USER_IN_ORGANIZATION_X_ADMIN_EMAIL)
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().header(ETAG);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .header(IF_NONE_MATCH, eTag)
+                .get("/memberships/{login}", USER_IN_ORGANIZATION_X_ADMIN_EMAIL)
+                .then()
+                .statusCode(SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void search() {
+        JsonPath result =
+                given()
+                        .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                        .filter(
+                                document("memberships/find-by-logins/ok",
+                                        preprocessRequest(staticUris(), prettyPrint()),
+                                        preprocessResponse(prettyPrint()),
+                                        requestHeaders(describeAuthorizationTokenHeader()),
+                                        SEARCH_RESPONSE_FIELDS_SNIPPET
+                                ))
+                        .contentType(JSON)
+                        .body(newArrayList(USER_IN_ORGANIZATION_X_ADMIN_EMAIL, USER_IN_ORGANIZATION_Y_ADMIN_EMAIL, USER_IN_ORGANIZATION_X_INVITED_EMAIL))
+                        .when()
+                        .post("/memberships/search")
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(result.getList("login", String.class)).containsExactly(USER_IN_ORGANIZATION_X_ADMIN_EMAIL, USER_IN_ORGANIZATION_Y_ADMIN_EMAIL, USER_IN_ORGANIZATION_X_INVITED_EMAIL);
+        assertThat(result.getList("[0].memberships.organizationId", Long.class)).containsExactly(organizationX.getId());
+        assertThat(result.getList("[0].memberships.isAdmin", Boolean.class)).containsExactly(true);
+        assertThat(result.getList("[1].memberships.organizationId", Long.class)).containsExactly(organizationY.getId());
+        assertThat(result.getList("[2].memberships")).isEmpty();
+    }
+
+    @Test
+    public void searchAsUserIsForbidden() {
+        given()
+                .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                .contentType(JSON)
+                .body(newArrayList(USER_EMAIL))
+                .when()
+                .post("/memberships/search")
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
+
+    @Test
+    public void searchForTooManyLogins() {
+        ixorTalkConfigProperties.getOrganization().getApi().getMemberships().setMaxLogins(1);
+
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .body(newArrayList(USER_IN_ORGANIZATION_X_ADMIN_EMAIL, USER_IN_ORGANIZATION_Y_ADMIN_EMAIL))
+                .when()
+                .post("/memberships/search")
+                .then()
+                .statusCode(SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void acceptedInviteIsAdded() {
+        userRestResource.save(userInOrganizationXInvited.accepted());
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_INVITED_EMAIL).getList("memberships.organizationId", Long.class)).containsExactly(organizationX.getId());
+    }
+
+    @Test
+    public void promotionToAdminIsReflected() {
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .post("/{organizationId}/{userId}/promote-to-admin", organizationX.getId(), userInOrganizationXAcceptedHavingARole.getId())
+                .then()
+                .statusCode(SC_NO_CONTENT);
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getList("memberships.isAdmin", Boolean.class)).containsExactly(true);
+    }
+
+    @Test
+    public void unlinkedRoleIsRemoved() {
+        setField(userInOrganizationXAcceptedHavingARole, "roles", newArrayList());
+        userRestResource.save(userInOrganizationXAcceptedHavingARole);
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getList("memberships[0].roles")).isEmpty();
+    }
+
+    @Test
+    public void renamedRoleIsReplaced() {
+        setField(secondRoleInOrganizationX, "role", "ROLE_RENAMED");
+        roleRestResource.save(secondRoleInOrganizationX);
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getList("memberships[0].roles", String.class)).containsExactly("ROLE_RENAMED");
+    }
+
+    @Test
+    public void deletedRoleIsRemoved() {
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .delete("/roles/{id}", secondRoleInOrganizationX.getId())
+                .then()
+                .statusCode(SC_NO_CONTENT);
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_ACCEPTED_EMAIL).getList("memberships[0].roles")).isEmpty();
+    }
+
+    @Test
+    public void deletedUserIsRemoved() {
+        userRestResource.deleteById(adminInOrganizationX.getId());
+
+        assertThat(findMemberships(USER_IN_ORGANIZATION_X_ADMIN_EMAIL).getList("memberships")).isEmpty();
+    }
+
+    private JsonPath findMemberships(String login) {
+        return given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .when()
+                .get("/memberships/{login}", login)
+                .then()
+                .statusCode(SC_OK)
+                .extract().jsonPath();
+    }
+}
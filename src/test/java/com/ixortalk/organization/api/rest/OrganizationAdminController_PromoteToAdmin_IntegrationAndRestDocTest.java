@@ -26,10 +26,15 @@ package com.ixortalk.organization.api.rest;
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
 import com.ixortalk.organization.api.config.TestConstants;
 import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.util.SqlStatements;
 import org.junit.Test;
 import org.springframework.restdocs.request.PathParametersSnippet;
 
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
+import static com.ixortalk.organization.api.domain.UserTestBuilder.aUser;
+import static com.ixortalk.test.util.Randomizer.nextString;
 import static io.restassured.http.ContentType.JSON;
 import static java.net.HttpURLConnection.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,6 +46,8 @@ import static org.springframework.restdocs.restassured3.RestAssuredRestDocumenta
 
 public class OrganizationAdminController_PromoteToAdmin_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
 
+    private static final int ADDITIONAL_USERS = 3;
+
 
     private static final PathParametersSnippet PATH_PARAMETERS_SNIPPET = pathParameters(
             parameterWithName("userId").description("The id (primary key) for the user to assign the role to"),
@@ -154,4 +161,23 @@ public class OrganizationAdminController_PromoteToAdmin_IntegrationAndRestDocTes
                 .then()
                 .statusCode(HTTP_NOT_FOUND);
     }
+
+    @Test
+    public void sqlStatementsDoNotGrowWithTheOrganizationsUsers() {
+        SqlStatements statements = sqlStatementCounter.record(this::promoteUserInOrganizationXToAdmin);
+
+        IntStream.range(0, ADDITIONAL_USERS).forEach(i -> organizationX.getUsers().add(aUser().withLogin(nextString("user@organization-x.com")).build()));
+        organizationX = organizationRestResource.save(organizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::promoteUserInOrganizationXToAdmin), ADDITIONAL_USERS, 0);
+    }
+
+    private void promoteUserInOrganizationXToAdmin() {
+        given()
+                .auth().preemptive().oauth2(TestConstants.ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .post("/{organizationId}/{userId}/promote-to-admin", organizationX.getId(), userInOrganizationXInvited.getId())
+                .then()
+                .statusCode(HTTP_NO_CONTENT);
+    }
 }
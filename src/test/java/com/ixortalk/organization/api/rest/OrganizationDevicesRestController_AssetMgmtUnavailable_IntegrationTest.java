@@ -0,0 +1,139 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.asset.Asset;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.TestConstants.MAPPED_DEVICE_INFO_FIELD;
+import static com.ixortalk.organization.api.asset.AssetTestBuilder.anAsset;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrganizationDevicesRestController_AssetMgmtUnavailable_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String ASSET_MGMT_CLIENT = "assetMgmt";
+    private static final String SEARCH_ASSETS_URL = "/assetmgmt/assets/search/property";
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private Asset asset;
+
+    @Before
+    public void before() {
+        asset = anAsset().withDeviceId(TEST_DEVICE).build();
+    }
+
+    @Test
+    public void staleDeviceListServedWhenAssetMgmtFails() throws IOException {
+        stubSearchAssets(okJson(objectMapper.writeValueAsString(newArrayList(asset))));
+        getDevices(SC_OK);
+
+        stubSearchAssets(serverError());
+        JsonPath devices = getDevices(SC_OK).jsonPath();
+
+        assertThat(devices.getString(MAPPED_DEVICE_INFO_FIELD.configValue())).contains(TEST_DEVICE.stringValue());
+        assetMgmtWireMockRule.verify(2, postRequestedFor(urlEqualTo(SEARCH_ASSETS_URL)));
+    }
+
+    @Test
+    public void assetMgmtFailsWithoutStaleDeviceList() throws IOException {
+        stubSearchAssets(serverError());
+
+        getDevices(SC_INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    public void circuitOpenServesStaleDeviceList() throws IOException {
+        stubSearchAssets(okJson(objectMapper.writeValueAsString(newArrayList(asset))));
+        getDevices(SC_OK);
+
+        feignClientResilience.getCircuitBreaker(ASSET_MGMT_CLIENT).transitionToOpenState();
+
+        JsonPath devices = getDevices(SC_OK).jsonPath();
+
+        assertThat(devices.getString(MAPPED_DEVICE_INFO_FIELD.configValue())).contains(TEST_DEVICE.stringValue());
+        assetMgmtWireMockRule.verify(1, postRequestedFor(urlEqualTo(SEARCH_ASSETS_URL)));
+    }
+
+    @Test
+    public void circuitOpenWithoutStaleDeviceList() throws IOException {
+        stubSearchAssets(okJson(objectMapper.writeValueAsString(newArrayList(asset))));
+        feignClientResilience.getCircuitBreaker(ASSET_MGMT_CLIENT).transitionToOpenState();
+
+        getDevices(SC_SERVICE_UNAVAILABLE);
+
+        assetMgmtWireMockRule.verify(0, postRequestedFor(urlEqualTo(SEARCH_ASSETS_URL)));
+    }
+
+    @Test
+    public void circuitBreakerAndBulkheadStateExported() {
+        feignClientResilience.getCircuitBreaker(ASSET_MGMT_CLIENT).transitionToOpenState();
+
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.state").tag("name", ASSET_MGMT_CLIENT).tag("state", "open").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("resilience4j.bulkhead.available.concurrent.calls").tag("name", ASSET_MGMT_CLIENT).gauge().value()).isEqualTo(10);
+    }
+
+    private void stubSearchAssets(ResponseDefinitionBuilder response) throws IOException {
+        assetMgmtWireMockRule.stubFor(
+                post(urlEqualTo(SEARCH_ASSETS_URL))
+                        .withRequestBody(equalToJson(objectMapper.writeValueAsString(organizationX.getOrganizationId())))
+                        .willReturn(response));
+    }
+
+    private ExtractableResponse<Response> getDevices(int expectedStatusCode) {
+        return given()
+                .auth()
+                .preemptive()
+                .oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .get("/organizations/{id}/devices", organizationX.getId())
+                .then()
+                .statusCode(expectedStatusCode)
+                .extract();
+    }
+}
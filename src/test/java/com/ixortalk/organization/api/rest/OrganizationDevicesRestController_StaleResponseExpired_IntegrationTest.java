@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.asset.AssetTestBuilder.anAsset;
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+@TestPropertySource(properties = {"ixortalk.feign.resilience.assetMgmt.stale-response-max-age=PT0S"})
+public class OrganizationDevicesRestController_StaleResponseExpired_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final String SEARCH_ASSETS_URL = "/assetmgmt/assets/search/property";
+
+    @Test
+    public void expiredDeviceListNotServed() throws IOException {
+        assetMgmtWireMockRule.stubFor(post(urlEqualTo(SEARCH_ASSETS_URL)).willReturn(okJson(objectMapper.writeValueAsString(newArrayList(anAsset().withDeviceId(TEST_DEVICE).build())))));
+        getDevices(SC_OK);
+
+        assetMgmtWireMockRule.stubFor(post(urlEqualTo(SEARCH_ASSETS_URL)).willReturn(serverError()));
+        getDevices(SC_INTERNAL_SERVER_ERROR);
+    }
+
+    private void getDevices(int expectedStatusCode) {
+        given()
+                .auth()
+                .preemptive()
+                .oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .get("/organizations/{id}/devices", organizationX.getId())
+                .then()
+                .statusCode(expectedStatusCode);
+    }
+}
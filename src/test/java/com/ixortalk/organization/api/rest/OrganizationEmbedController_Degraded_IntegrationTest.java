@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.organization.api.asset.AssetTestBuilder.anAsset;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.rest.OrganizationEmbedController.DEVICES_NOT_EMBEDDED_WARNING;
+import static io.restassured.RestAssured.given;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.WARNING;
+
+@TestPropertySource(properties = {
+        "ixortalk.organization.api.embed.threads=1",
+        "ixortalk.organization.api.embed.queue-capacity=0",
+        "ixortalk.organization.api.embed.timeout=PT0.2S"
+})
+public class OrganizationEmbedController_Degraded_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final int SLOW_DEVICES_DELAY_IN_MILLIS = 1000;
+
+    @Before
+    public void stubSlowAssetMgmt() throws IOException {
+        assetMgmtWireMockRule.stubFor(
+                post(urlEqualTo("/assetmgmt/assets/search/property"))
+                        .willReturn(okJson(objectMapper.writeValueAsString(newArrayList(anAsset().withDeviceId(TEST_DEVICE).build())))
+                                .withFixedDelay(SLOW_DEVICES_DELAY_IN_MILLIS)));
+    }
+
+    @After
+    public void waitForSlowDevicesCall() throws InterruptedException {
+        // The timed out call keeps the single embed thread busy until asset management answers.
+        Thread.sleep(SLOW_DEVICES_DELAY_IN_MILLIS);
+    }
+
+    @Test
+    public void timeout() {
+        ExtractableResponse<Response> response = getWithDevicesEmbedded();
+
+        JsonPath jsonPath = response.jsonPath();
+        assertThat(jsonPath.getString("name")).isEqualTo(organizationX.getName());
+        assertThat(jsonPath.getList("_embedded.users.login", String.class)).contains(adminInOrganizationX.getLogin());
+        assertThat(jsonPath.getString("_embedded.devices")).isNull();
+        assertThat(response.header(WARNING)).isEqualTo(DEVICES_NOT_EMBEDDED_WARNING);
+    }
+
+    @Test
+    public void rejected() throws InterruptedException {
+        CompletableFuture<ExtractableResponse<Response>> occupyingEmbedThread = supplyAsync(this::getWithDevicesEmbedded);
+        while (assetMgmtWireMockRule.findAll(postRequestedFor(urlEqualTo("/assetmgmt/assets/search/property"))).isEmpty()) {
+            Thread.sleep(10);
+        }
+
+        ExtractableResponse<Response> response = getWithDevicesEmbedded();
+
+        JsonPath jsonPath = response.jsonPath();
+        assertThat(jsonPath.getString("name")).isEqualTo(organizationX.getName());
+        assertThat(jsonPath.getString("_embedded.devices")).isNull();
+        assertThat(response.header(WARNING)).isEqualTo(DEVICES_NOT_EMBEDDED_WARNING);
+        assertThat(occupyingEmbedThread.join().header(WARNING)).isEqualTo(DEVICES_NOT_EMBEDDED_WARNING);
+
+        assetMgmtWireMockRule.verify(1, postRequestedFor(urlEqualTo("/assetmgmt/assets/search/property")));
+    }
+
+    private ExtractableResponse<Response> getWithDevicesEmbedded() {
+        return given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .param("embed", "users,devices")
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK)
+                .extract();
+    }
+}
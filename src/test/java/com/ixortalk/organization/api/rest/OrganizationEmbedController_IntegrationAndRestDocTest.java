@@ -0,0 +1,214 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.asset.Asset;
+import io.restassured.path.json.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.restdocs.request.PathParametersSnippet;
+import org.springframework.restdocs.request.RequestParametersSnippet;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.ixortalk.autoconfigure.oauth2.OAuth2TestConfiguration.retrievedAdminTokenAuthorizationHeader;
+import static com.ixortalk.organization.api.TestConstants.MAPPED_DEVICE_INFO_FIELD;
+import static com.ixortalk.organization.api.asset.AssetTestBuilder.anAsset;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_Y_ADMIN_JWT_TOKEN;
+import static io.restassured.RestAssured.given;
+import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
+import static org.apache.http.HttpStatus.SC_FORBIDDEN;
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.restdocs.restassured3.RestAssuredRestDocumentation.document;
+
+public class OrganizationEmbedController_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
+
+    private static final PathParametersSnippet PATH_PARAMETERS_SNIPPET = pathParameters(
+            parameterWithName("id").description("The id of the organization.")
+    );
+
+    private static final RequestParametersSnippet REQUEST_PARAMETERS_SNIPPET = requestParameters(
+            parameterWithName("embed").description("Comma separated sub-resources to embed: `users`, `roles`, `adminUsers` and/or `devices`.  Users and roles are limited to their first page.")
+    );
+
+    private Asset asset;
+
+    @Before
+    public void stubAssetMgmt() throws IOException {
+        asset = anAsset().withDeviceId(TEST_DEVICE).build();
+
+        assetMgmtWireMockRule.stubFor(
+                post(urlEqualTo("/assetmgmt/assets/search/property"))
+                        .andMatching(retrievedAdminTokenAuthorizationHeader())
+                        .withHeader(CONTENT_TYPE, equalTo(APPLICATION_JSON_VALUE))
+                        .withRequestBody(equalToJson(objectMapper.writeValueAsString(organizationX.getOrganizationId())))
+                        .willReturn(okJson(objectMapper.writeValueAsString(newArrayList(asset)))));
+    }
+
+    @Test
+    public void allSubResources() {
+        JsonPath jsonPath =
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .filter(
+                                document("organizations/embed/ok",
+                                        preprocessRequest(staticUris(), prettyPrint()),
+                                        preprocessResponse(prettyPrint()),
+                                        requestHeaders(describeAuthorizationTokenHeader()),
+                                        PATH_PARAMETERS_SNIPPET,
+                                        REQUEST_PARAMETERS_SNIPPET
+                                ))
+                        .when()
+                        .param("embed", "users,roles,adminUsers,devices")
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(jsonPath.getString("name")).isEqualTo(organizationX.getName());
+        assertThat(jsonPath.getList("_embedded.users.login", String.class))
+                .hasSize(organizationXInitialNumberOfUsers)
+                .contains(userInOrganizationXInvited.getLogin(), adminInOrganizationX.getLogin());
+        assertThat(jsonPath.getString("_embedded.users[0]._links.resend-invite.href")).isNotNull();
+        assertThat(jsonPath.getList("_embedded.roles.name", String.class)).containsOnly(firstRoleInOrganizationX.getName(), secondRoleInOrganizationX.getName());
+        assertThat(jsonPath.getList("_embedded.adminUsers.login", String.class)).containsExactly(adminInOrganizationX.getLogin());
+        assertThat(jsonPath.getList("_embedded.devices." + MAPPED_DEVICE_INFO_FIELD.configValue(), String.class)).containsExactly(TEST_DEVICE.stringValue());
+        assertThat(jsonPath.getString("_links.findUsersByOrganization.href")).isNotNull();
+
+        assetMgmtWireMockRule.verify(1, postRequestedFor(urlEqualTo("/assetmgmt/assets/search/property")));
+    }
+
+    @Test
+    public void onlyRequestedSubResources() {
+        JsonPath jsonPath =
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .when()
+                        .param("embed", "roles")
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(jsonPath.getMap("_embedded")).containsOnlyKeys("roles");
+
+        assetMgmtWireMockRule.verify(0, postRequestedFor(urlEqualTo("/assetmgmt/assets/search/property")));
+    }
+
+    @Test
+    public void withoutEmbed() {
+        JsonPath jsonPath =
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .when()
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract().jsonPath();
+
+        assertThat(jsonPath.getString("name")).isEqualTo(organizationX.getName());
+        assertThat(jsonPath.getMap("_embedded")).isNull();
+    }
+
+    @Test
+    public void unknownSubResource() {
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .param("embed", "users,unknown")
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void asOrganizationAdminFromDifferentOrganization() {
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_Y_ADMIN_JWT_TOKEN)
+                .filter(
+                        document("organizations/embed/different-admin",
+                                preprocessRequest(staticUris(), prettyPrint()),
+                                preprocessResponse(prettyPrint()),
+                                requestHeaders(describeAuthorizationTokenHeader()),
+                                PATH_PARAMETERS_SNIPPET
+                        ))
+                .when()
+                .param("embed", "users,devices")
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_FORBIDDEN);
+
+        assetMgmtWireMockRule.verify(0, postRequestedFor(urlEqualTo("/assetmgmt/assets/search/property")));
+    }
+
+    @Test
+    public void whenOrganizationDoesNotExist() {
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .param("embed", "users")
+                .get("/organizations/{id}", Long.MAX_VALUE)
+                .then()
+                .statusCode(SC_NOT_FOUND);
+    }
+
+    @Test
+    public void whenAssetMgmtDoesNotReturnOK() throws IOException {
+        assetMgmtWireMockRule.stubFor(
+                post(urlEqualTo("/assetmgmt/assets/search/property"))
+                        .andMatching(retrievedAdminTokenAuthorizationHeader())
+                        .withRequestBody(equalToJson(objectMapper.writeValueAsString(organizationX.getOrganizationId())))
+                        .willReturn(aResponse().withStatus(SC_UNAUTHORIZED)));
+
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .param("embed", "users,devices")
+                .get("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_UNAUTHORIZED);
+    }
+}
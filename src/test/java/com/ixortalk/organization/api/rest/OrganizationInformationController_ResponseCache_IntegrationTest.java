@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_JWT_TOKEN;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static io.restassured.http.ContentType.XML;
+import static org.apache.http.HttpStatus.SC_NOT_ACCEPTABLE;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+public class OrganizationInformationController_ResponseCache_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void renderedOnce() {
+        double renderedBefore = organizationsRendered();
+
+        String first = getOrganizationXInformation().asString();
+        String second = getOrganizationXInformation().asString();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(organizationsRendered()).isEqualTo(renderedBefore + 1);
+    }
+
+    @Test
+    public void cacheControl() {
+        assertThat(getOrganizationXInformation().header(CACHE_CONTROL))
+                .contains("public")
+                .contains("max-age=" + ixorTalkConfigProperties.getOrganization().getApi().getOrganizationInformation().getMaxAge().getSeconds());
+    }
+
+    @Test
+    public void negotiatedMediaType() {
+        getOrganizationXInformation();
+
+        ExtractableResponse<Response> json =
+                given()
+                        .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                        .accept(JSON)
+                        .get("/organization-information/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK)
+                        .extract();
+
+        assertThat(json.contentType()).startsWith(APPLICATION_JSON_VALUE);
+        assertThat(json.header(VARY)).contains(ACCEPT);
+        assertThat(json.jsonPath().getString("name")).isEqualTo(organizationX.getName());
+    }
+
+    @Test
+    public void unsupportedMediaTypeNotAcceptable() {
+        given()
+                .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                .accept(XML)
+                .get("/organization-information/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_NOT_ACCEPTABLE);
+    }
+
+    @Test
+    public void updateEvictsRenderedResponse() throws JsonProcessingException {
+        getOrganizationXInformation();
+
+        String newName = nextString("Organization X renamed");
+        setField(organizationX, "name", newName);
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .body(objectMapper.writeValueAsString(organizationX))
+                .put("/organizations/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+
+        assertThat(getOrganizationXInformation().jsonPath().getString("name")).isEqualTo(newName);
+    }
+
+    private ExtractableResponse<Response> getOrganizationXInformation() {
+        return given()
+                .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                .get("/organization-information/{id}", organizationX.getId())
+                .then()
+                .statusCode(SC_OK)
+                .extract();
+    }
+
+    private double organizationsRendered() {
+        return meterRegistry.find("organization.representation").tag("processor", "organization").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
@@ -30,6 +30,7 @@ import com.ixortalk.organization.api.asset.AssetTestBuilder;
 import com.ixortalk.organization.api.config.TestConstants;
 import com.ixortalk.organization.api.domain.Role;
 import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.util.SqlStatements;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.restdocs.request.ParameterDescriptor;
@@ -65,6 +66,13 @@ public class OrganizationRestController_DeleteCascade_IntegrationAndRestDocTest
 
     private static final ParameterDescriptor ORGANIZATION_ID_PATH_PARAMETER = parameterWithName("id").description("The id of the organization to delete.");
 
+    /**
+     * One bulk delete per table: role links, users, roles, organization and membership rows.
+     */
+    private static final int CASCADE_DELETE_STATEMENTS = 5;
+
+    private static final int LARGE_ORGANIZATION_USERS = 50_000;
+
     public static final AssetId FIRST_DEVICE_ASSET_ID = assetId(nextString("firstDeviceAssetId"));
     public static final AssetId SECOND_DEVICE_ASSET_ID = assetId(nextString("secondDeviceAssetId"));
 
@@ -120,6 +128,25 @@ public class OrganizationRestController_DeleteCascade_IntegrationAndRestDocTest
         assertThat(userRestResource.findAllById(existingOrganizationXUserIds)).isEmpty();
     }
 
+    @Test
+    public void largeOrganizationDeletedPerTable() {
+        insertUsersHavingRole(organizationX, LARGE_ORGANIZATION_USERS, secondRoleInOrganizationX);
+
+        SqlStatements statements = sqlStatementCounter.record(() ->
+                given()
+                        .auth()
+                        .preemptive()
+                        .oauth2(ADMIN_JWT_TOKEN)
+                        .when()
+                        .delete("/organizations/{id}/cascade", organizationX.getId())
+                        .then()
+                        .statusCode(SC_NO_CONTENT));
+
+        assertThat(statements.getStatements().stream().filter(statement -> statement.trim().toLowerCase().startsWith("delete"))).hasSizeLessThanOrEqualTo(CASCADE_DELETE_STATEMENTS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from org_user where organization_id = ?", Long.class, organizationX.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from org_role_in_user where user_id = ?", Long.class, secondRoleInOrganizationX.getId())).isZero();
+    }
+
     @Test
     public void rolesDeleted() {
 
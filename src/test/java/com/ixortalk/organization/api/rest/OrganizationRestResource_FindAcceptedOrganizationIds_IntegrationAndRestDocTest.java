@@ -26,6 +26,7 @@ package com.ixortalk.organization.api.rest;
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
 import com.ixortalk.organization.api.config.TestConstants;
 import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.User;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -52,6 +53,7 @@ public class OrganizationRestResource_FindAcceptedOrganizationIds_IntegrationAnd
 
     private Organization acceptedOrganization;
     private Organization anotherAcceptedOrganization;
+    private Organization invitedOrganization;
 
     @Before
     public void before() {
@@ -71,7 +73,7 @@ public class OrganizationRestResource_FindAcceptedOrganizationIds_IntegrationAnd
                         )
                         .build();
 
-        Organization invitedOrganization =
+        invitedOrganization =
                 anOrganization()
                         .withUsers(
                                 aUser().withLogin(USER_EMAIL.toLowerCase()).withStatus(INVITED).build(),
@@ -191,4 +193,37 @@ public class OrganizationRestResource_FindAcceptedOrganizationIds_IntegrationAnd
                 .then()
                 .statusCode(SC_FORBIDDEN);
     }
+
+    @Test
+    public void servedFromCacheUntilAUserIsAccepted() {
+        assertThat(findAcceptedOrganizationIds()).containsOnly(acceptedOrganization.getId(), anotherAcceptedOrganization.getId());
+        assertThat(sqlStatementCounter.record(this::findAcceptedOrganizationIds).count()).isZero();
+
+        User invitedUser = invitedOrganization.getUsers().stream().filter(user -> user.getLogin().equals(USER_EMAIL.toLowerCase())).findFirst().get();
+        userRestResource.save(invitedUser.accepted());
+
+        assertThat(findAcceptedOrganizationIds()).containsOnly(acceptedOrganization.getId(), anotherAcceptedOrganization.getId(), invitedOrganization.getId());
+    }
+
+    @Test
+    public void doesNotQueryTheOrganizationTable() {
+        assertThat(sqlStatementCounter.record(this::findAcceptedOrganizationIds).getStatements())
+                .isNotEmpty()
+                .noneMatch(statement -> statement.matches("(?is).*\\borganization\\b.*"));
+    }
+
+    private List<Long> findAcceptedOrganizationIds() {
+        return given()
+                .auth().preemptive().oauth2(TestConstants.USER_JWT_TOKEN)
+                .contentType(JSON)
+                .when()
+                .get("/organizations/search/findAcceptedOrganizationIds")
+                .then()
+                .statusCode(SC_OK)
+                .extract().as(List.class)
+                .stream()
+                .mapToLong(o -> ((Integer) o).longValue())
+                .boxed()
+                .collect(toList());
+    }
 }
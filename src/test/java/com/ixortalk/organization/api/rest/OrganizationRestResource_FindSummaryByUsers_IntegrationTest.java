@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.User;
+import com.ixortalk.organization.api.service.OrganizationService;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrganizationRestResource_FindSummaryByUsers_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private OrganizationService organizationService;
+
+    @Test
+    public void summary() {
+        assertThat(organizationRestResource.findSummaryByUsers(userInOrganizationXInvited))
+                .hasValueSatisfying(summary -> {
+                    assertThat(summary.getId()).isEqualTo(organizationX.getId());
+                    assertThat(summary.getName()).isEqualTo(ORGANIZATION_X);
+                });
+    }
+
+    @Test
+    public void organizationIdFromForeignKey() {
+        User user = userRestResource.findOneById(userInOrganizationXInvited.getId()).get();
+
+        assertThat(sqlStatementCounter.record(() -> assertThat(organizationService.getOrganizationId(user)).contains(organizationX.getId())).count()).isZero();
+    }
+
+    @Test
+    public void organizationIdForUserNotFlushedYet() {
+        assertThat(organizationService.getOrganizationId(userInOrganizationXInvited)).contains(organizationX.getId());
+        assertThat(organizationService.getOrganization(userInOrganizationXInvited).map(Organization::getName)).contains(ORGANIZATION_X);
+    }
+}
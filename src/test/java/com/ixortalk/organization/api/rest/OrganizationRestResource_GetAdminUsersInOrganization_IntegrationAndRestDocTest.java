@@ -24,14 +24,19 @@
 package com.ixortalk.organization.api.rest;
 
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.util.SqlStatements;
 import io.restassured.path.json.JsonPath;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.restdocs.payload.ResponseFieldsSnippet;
 
+import java.util.stream.IntStream;
+
 import static com.google.common.collect.Sets.newHashSet;
 import static com.ixortalk.organization.api.config.TestConstants.*;
+import static com.ixortalk.organization.api.domain.UserTestBuilder.aUser;
 import static com.ixortalk.organization.api.rest.docs.RestDocDescriptors.TokenHeaderDescriptors.TOKEN_WITH_ORGANIZATION_ADMIN_PRIVILEGES;
+import static com.ixortalk.test.util.Randomizer.nextString;
 import static io.restassured.RestAssured.given;
 import static java.lang.Long.MAX_VALUE;
 import static org.apache.http.HttpStatus.*;
@@ -47,6 +52,10 @@ import static org.springframework.restdocs.restassured3.RestAssuredRestDocumenta
 
 public class OrganizationRestResource_GetAdminUsersInOrganization_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
 
+    private static final int ADDITIONAL_ADMINS = 3;
+
+    private static final String USER_TABLE = "(?is).*\\borg_user\\b.*";
+
     private static final ResponseFieldsSnippet RESPONSE_FIELDS_SNIPPET =
             responseFields(
                     fieldWithPath("_embedded.users[].id").type(NUMBER).description("The primary key for the user in this organization"),
@@ -144,4 +153,19 @@ public class OrganizationRestResource_GetAdminUsersInOrganization_IntegrationAnd
         .then()
             .statusCode(SC_NOT_FOUND);
     }
+
+    @Test
+    public void adminUsersInOneQuery() {
+        IntStream.range(0, ADDITIONAL_ADMINS).forEach(i -> organizationX.getUsers().add(aUser().withLogin(nextString("user@organization-x.com")).withIsAdmin(true).build()));
+        organizationX = organizationRestResource.save(organizationX);
+
+        SqlStatements statements = sqlStatementCounter.record(() ->
+                given()
+                        .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                        .get("/organizations/{id}/adminUsers", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK));
+
+        assertThat(statements.getStatements().stream().filter(statement -> statement.matches(USER_TABLE))).hasSize(1);
+    }
 }
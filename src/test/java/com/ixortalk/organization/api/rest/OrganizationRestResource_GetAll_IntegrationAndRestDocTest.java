@@ -24,6 +24,7 @@
 package com.ixortalk.organization.api.rest;
 
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.util.SqlStatements;
 import io.restassured.path.json.JsonPath;
 import org.junit.Test;
 
@@ -43,6 +44,15 @@ import static org.springframework.restdocs.restassured3.RestAssuredRestDocumenta
 
 public class OrganizationRestResource_GetAll_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
 
+    private static final int ADDITIONAL_ORGANIZATIONS = 20;
+
+    private static final int ADDITIONAL_USERS = 100;
+
+    private static final String DISTINCT = "(?is).*\\bdistinct\\b.*";
+    private static final String JOIN = "(?is).*\\bjoin\\b.*";
+    private static final String LOGIN_CONDITION = "(?is).*\\blogin\\s*=\\s*\\?.*";
+    private static final String USER_TABLE = "(?is).*\\borg_user\\b.*";
+
     @Test
     public void asAdmin() {
 
@@ -183,4 +193,52 @@ public class OrganizationRestResource_GetAll_IntegrationAndRestDocTest extends A
 
         assertThat(result.getList("_embedded.organizations.id.flatten()", Long.class)).containsOnly(organizationX.getId(), organizationY.getId(), organizationZ.getId());
     }
+
+    @Test
+    public void asAdminSqlStatements() {
+        insertAdditionalOrganizationsAndUsers();
+
+        SqlStatements statements = sqlStatementCounter.record(() -> getOrganizations(ADMIN_JWT_TOKEN));
+
+        assertThat(statements.getStatements()).noneMatch(statement -> statement.matches(DISTINCT) || statement.matches(USER_TABLE));
+        assertThat(getOrganizations(ADMIN_JWT_TOKEN).getLong("page.totalElements")).isEqualTo(ADDITIONAL_ORGANIZATIONS + 3);
+    }
+
+    @Test
+    public void asOrganizationAdminSqlStatements() {
+        insertAdditionalOrganizationsAndUsers();
+
+        SqlStatements statements = sqlStatementCounter.record(() -> getOrganizations(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN));
+
+        assertThat(statements.getStatements()).noneMatch(statement -> statement.matches(DISTINCT) || (statement.matches(USER_TABLE) && statement.matches(JOIN)));
+        assertThat(getOrganizations(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN).getLong("page.totalElements")).isEqualTo(ADDITIONAL_ORGANIZATIONS + 1);
+    }
+
+    @Test
+    public void singleOrganizationAsOrganizationAdminSqlStatements() {
+        insertUsersHavingRole(organizationX, ADDITIONAL_USERS, secondRoleInOrganizationX);
+
+        SqlStatements statements = sqlStatementCounter.record(() ->
+                given()
+                        .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                        .get("/organizations/{id}", organizationX.getId())
+                        .then()
+                        .statusCode(SC_OK));
+
+        assertThat(statements.getStatements()).allMatch(statement -> !statement.matches(USER_TABLE) || statement.matches(LOGIN_CONDITION));
+    }
+
+    private void insertAdditionalOrganizationsAndUsers() {
+        insertOrganizationsAdministeredBy(ADDITIONAL_ORGANIZATIONS, USER_IN_ORGANIZATION_X_ADMIN_EMAIL);
+        insertUsersHavingRole(organizationX, ADDITIONAL_USERS, secondRoleInOrganizationX);
+    }
+
+    private JsonPath getOrganizations(String token) {
+        return given()
+                .auth().preemptive().oauth2(token)
+                .get("/organizations")
+                .then()
+                .statusCode(SC_OK)
+                .extract().jsonPath();
+    }
 }
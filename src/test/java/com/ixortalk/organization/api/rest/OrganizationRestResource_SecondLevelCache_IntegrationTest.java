@@ -0,0 +1,84 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.domain.Organization;
+import com.ixortalk.organization.api.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static com.ixortalk.organization.api.config.HibernateCacheConfig.CACHE_HIT_RATIO_METRIC;
+import static com.ixortalk.organization.api.domain.OrganizationTestBuilder.anOrganization;
+import static com.ixortalk.organization.api.domain.UserTestBuilder.aUser;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+public class OrganizationRestResource_SecondLevelCache_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void organizationLookupsServedFromCache() {
+        organizationRestResource.findById(organizationX.getId());
+        organizationRestResource.findByName(ORGANIZATION_X);
+
+        assertThat(sqlStatementCounter.record(() -> organizationRestResource.findById(organizationX.getId())).count()).isZero();
+        assertThat(sqlStatementCounter.record(() -> organizationRestResource.findByName(ORGANIZATION_X)).count()).isZero();
+    }
+
+    @Test
+    public void updateInvalidatesCachedOrganizationAndQueries() {
+        organizationRestResource.findByName(ORGANIZATION_X);
+
+        String newName = nextString("Organization X renamed");
+        setField(organizationX, "name", newName);
+        organizationRestResource.save(organizationX);
+
+        assertThat(organizationRestResource.findById(organizationX.getId()).map(Organization::getName)).contains(newName);
+        assertThat(organizationRestResource.findByName(ORGANIZATION_X)).isEmpty();
+        assertThat(organizationRestResource.findByName(newName).map(Organization::getId)).contains(organizationX.getId());
+    }
+
+    @Test
+    public void addedUserHasOrganizationId() {
+        User user = aUser().withLogin(nextString("cached-user@organization.com")).build();
+        Organization organization = organizationRestResource.save(anOrganization().withName(nextString("cachedOrganization")).withUsers(user).build());
+
+        Long userId = organization.getUsers().get(0).getId();
+
+        assertThat(userRestResource.findById(userId).map(User::getOrganizationId)).contains(organization.getId());
+    }
+
+    @Test
+    public void hitRatioExported() {
+        organizationRestResource.findById(organizationX.getId());
+
+        assertThat(meterRegistry.get(CACHE_HIT_RATIO_METRIC).tag("region", Organization.class.getName()).gauge().value()).isBetween(0d, 1d);
+    }
+}
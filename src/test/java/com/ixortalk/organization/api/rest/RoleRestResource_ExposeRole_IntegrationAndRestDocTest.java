@@ -32,10 +32,13 @@ import org.junit.Test;
 import javax.inject.Inject;
 
 import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.config.TestConstants.USER_JWT_TOKEN;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_FORBIDDEN;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
@@ -95,4 +98,24 @@ public class RoleRestResource_ExposeRole_IntegrationAndRestDocTest extends Abstr
 
         assertThat(roleRestResource.findById(roleId)).get().extracting(Role::getRole).isNull();
     }
+
+    @Test
+    public void allRolesAsUser() {
+        given()
+                .auth().preemptive().oauth2(USER_JWT_TOKEN)
+                .when()
+                .get("/roles")
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
+
+    @Test
+    public void allRolesAsOrganizationAdmin() {
+        given()
+                .auth().preemptive().oauth2(USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .get("/roles")
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
 }
@@ -26,10 +26,12 @@ package com.ixortalk.organization.api.rest;
 import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
 import com.ixortalk.organization.api.config.TestConstants;
 import com.ixortalk.organization.api.domain.Role;
+import com.ixortalk.organization.api.util.SqlStatements;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
@@ -47,9 +49,14 @@ import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 public class RoleRestResource_RemoveRole_IntegrationAndRestDocTest extends AbstractSpringIntegrationTest {
 
+    private static final int ADDITIONAL_USERS = 100;
+
     @Inject
     protected RoleRestResource roleRestResource;
 
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
     @Before
     public void before() {
         setField(userInOrganizationXAcceptedHavingARole, "roles", newArrayList(firstRoleInOrganizationX, secondRoleInOrganizationX));
@@ -163,4 +170,27 @@ public class RoleRestResource_RemoveRole_IntegrationAndRestDocTest extends Abstr
 
         verify(auth0Roles, never()).deleteRole(anyString());
     }
+
+    @Test
+    public void sqlStatementsDoNotGrowWithTheRolesUsers() {
+        SqlStatements statements = sqlStatementCounter.record(() -> deleteRole(firstRoleInOrganizationX));
+
+        insertUsersHavingRole(organizationX, ADDITIONAL_USERS, secondRoleInOrganizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(() -> deleteRole(secondRoleInOrganizationX)), ADDITIONAL_USERS, 0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from org_role_in_user where user_id = ?", Long.class, secondRoleInOrganizationX.getId())).isZero();
+    }
+
+    /**
+     * Unlinking the role with native SQL clears the second level cache, so both measurements start from a cold cache.
+     */
+    private void deleteRole(Role role) {
+        entityManagerFactory.getCache().evictAll();
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .delete("/roles/{id}", role.getId())
+                .then()
+                .statusCode(HTTP_NO_CONTENT);
+    }
 }
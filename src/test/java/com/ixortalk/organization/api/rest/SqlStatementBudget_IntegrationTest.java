@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.util.SqlStatements;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.stream.IntStream;
+
+import static com.ixortalk.organization.api.config.TestConstants.ADMIN_JWT_TOKEN;
+import static com.ixortalk.organization.api.domain.EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME;
+import static com.ixortalk.organization.api.domain.RoleTestBuilder.aRole;
+import static com.ixortalk.organization.api.domain.UserTestBuilder.aUser;
+import static com.ixortalk.organization.api.util.GraphQLUtil.withGraphQLQuery;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+public class SqlStatementBudget_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final int ADDITIONAL_ROWS = 3;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void rolesByOrganizationId() {
+        SqlStatements statements = sqlStatementCounter.record(this::getRolesByOrganizationId).assertNoRepeatedSelects();
+
+        IntStream.range(0, ADDITIONAL_ROWS).forEach(i -> organizationX.getRoles().add(aRole().withName(nextString("role")).withRole(nextString("ROLE")).build()));
+        organizationX = organizationRestResource.save(organizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::getRolesByOrganizationId), ADDITIONAL_ROWS, 0);
+    }
+
+    @Test
+    public void enhancedUsersByOrganizationId() {
+        SqlStatements statements = sqlStatementCounter.record(this::getEnhancedUsersByOrganizationId);
+
+        addUsersToOrganizationX(false);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::getEnhancedUsersByOrganizationId), ADDITIONAL_ROWS, 0);
+    }
+
+    @Test
+    public void adminUsers() {
+        SqlStatements statements = sqlStatementCounter.record(this::getAdminUsers);
+
+        addUsersToOrganizationX(true);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::getAdminUsers), ADDITIONAL_ROWS, 0);
+    }
+
+    @Test
+    public void graphQLUsersPage() {
+        SqlStatements statements = sqlStatementCounter.record(this::getGraphQLUsersPage);
+
+        addUsersToOrganizationX(false);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::getGraphQLUsersPage), ADDITIONAL_ROWS, 0);
+    }
+
+    private void addUsersToOrganizationX(boolean admin) {
+        IntStream.range(0, ADDITIONAL_ROWS).forEach(i -> organizationX.getUsers().add(aUser().withLogin(nextString("user@organization-x.com")).withIsAdmin(admin).build()));
+        organizationX = organizationRestResource.save(organizationX);
+    }
+
+    private void getRolesByOrganizationId() {
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .param("organizationId", organizationX.getId())
+                .get("/roles/search/findByOrganizationId")
+                .then()
+                .statusCode(SC_OK);
+    }
+
+    private void getEnhancedUsersByOrganizationId() {
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .param("organizationId", organizationX.getId())
+                .param("projection", ENHANCED_USER_PROJECTION_NAME)
+                .get("/users/search/findByOrganizationId")
+                .then()
+                .statusCode(SC_OK);
+    }
+
+    private void getAdminUsers() {
+        given()
+                .auth().preemptive().oauth2(ADMIN_JWT_TOKEN)
+                .contentType(JSON)
+                .get("/organizations/{id}/adminUsers", organizationX.getId())
+                .then()
+                .statusCode(SC_OK);
+    }
+
+    /**
+     * The roles of the users on the page are loaded in batches, both measurements start from a cold cache so neither
+     * finds some of them cached.
+     */
+    private void getGraphQLUsersPage() {
+        entityManagerFactory.getCache().evictAll();
+        withGraphQLQuery("{ usersPage(size: 20, filter:\"organizationId:" + organizationX.getId() + "\") { content { id login roles { id name } } } }", ADMIN_JWT_TOKEN)
+                .post("/graphql")
+                .then()
+                .statusCode(SC_OK);
+    }
+}
@@ -33,6 +33,7 @@ import org.junit.Test;
 import static com.ixortalk.organization.api.domain.EnhancedUserProjection.ENHANCED_USER_PROJECTION_NAME;
 import static io.restassured.RestAssured.given;
 import static java.util.Optional.of;
+import static org.apache.http.HttpStatus.SC_FORBIDDEN;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.when;
@@ -58,4 +59,28 @@ public class UserRestResource_GetUsers_IntegrationAndRestDocTest extends Abstrac
                 .then()
                 .statusCode(SC_OK);
     }
+
+    @Test
+    public void asUser() {
+        given()
+                .auth()
+                .preemptive()
+                .oauth2(TestConstants.USER_JWT_TOKEN)
+                .when()
+                .get("/users")
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
+
+    @Test
+    public void asOrganizationAdmin() {
+        given()
+                .auth()
+                .preemptive()
+                .oauth2(TestConstants.USER_IN_ORGANIZATION_X_ADMIN_JWT_TOKEN)
+                .when()
+                .get("/users")
+                .then()
+                .statusCode(SC_FORBIDDEN);
+    }
 }
@@ -0,0 +1,226 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.rest;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.config.IxorTalkConfigProperties.Organization.Api.VerifyEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.response.ValidatableResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.ixortalk.autoconfigure.oauth2.OAuth2TestConfiguration.retrievedAdminTokenAuthorizationHeader;
+import static com.ixortalk.organization.api.ratelimit.RateLimiter.RATE_LIMIT_METER_NAME;
+import static com.ixortalk.organization.api.rest.VerifyEmailController.CLIENT_IP_LIMIT;
+import static com.ixortalk.organization.api.rest.VerifyEmailController.EMAIL_LIMIT;
+import static com.ixortalk.test.util.Randomizer.nextString;
+import static io.restassured.RestAssured.given;
+import static java.net.HttpURLConnection.HTTP_MOVED_TEMP;
+import static java.time.Duration.ZERO;
+import static java.time.Instant.now;
+import static java.time.Duration.ofMinutes;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+
+public class VerifyEmailController_RateLimit_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private int perEmailCapacity;
+    private int perClientIpCapacity;
+    private Duration ticketDedupeWindow;
+
+    @Before
+    public void tightenLimits() {
+        VerifyEmail verifyEmail = ixorTalkConfigProperties.getOrganization().getApi().getVerifyEmail();
+        perEmailCapacity = verifyEmail.getPerEmail().getCapacity();
+        perClientIpCapacity = verifyEmail.getPerClientIp().getCapacity();
+        ticketDedupeWindow = verifyEmail.getTicketDedupeWindow();
+
+        verifyEmail.getPerEmail().setCapacity(2);
+        verifyEmail.getPerClientIp().setCapacity(3);
+        verifyEmail.setTicketDedupeWindow(ofMinutes(5));
+
+        mailingServiceWireMockRule.stubFor(post(urlEqualTo("/mailing/send"))
+                .andMatching(retrievedAdminTokenAuthorizationHeader())
+                .willReturn(ok()));
+
+        when(auth0Users.createEmailVerificationTicket(anyString(), anyString(), anyInt())).thenReturn("ticketUrl");
+    }
+
+    @After
+    public void restoreLimits() {
+        VerifyEmail verifyEmail = ixorTalkConfigProperties.getOrganization().getApi().getVerifyEmail();
+        verifyEmail.getPerEmail().setCapacity(perEmailCapacity);
+        verifyEmail.getPerClientIp().setCapacity(perClientIpCapacity);
+        verifyEmail.setTicketDedupeWindow(ticketDedupeWindow);
+    }
+
+    @Test
+    public void rejectsOnceTheEmailLimitIsReached() {
+        String email = nextString("rateLimited") + "@ixortalk.com";
+        double rejectedBefore = rejected(EMAIL_LIMIT);
+
+        verifyEmail(randomClientIp(), nextString("userId"), email).statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(randomClientIp(), nextString("userId"), email.toUpperCase()).statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(randomClientIp(), nextString("userId"), email).statusCode(TOO_MANY_REQUESTS.value());
+
+        assertThat(rejected(EMAIL_LIMIT)).isEqualTo(rejectedBefore + 1);
+    }
+
+    @Test
+    public void rejectsOnceTheClientIpLimitIsReached() {
+        String clientIp = randomClientIp();
+        double rejectedBefore = rejected(CLIENT_IP_LIMIT);
+
+        verifyEmail(clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(TOO_MANY_REQUESTS.value());
+
+        assertThat(rejected(CLIENT_IP_LIMIT)).isEqualTo(rejectedBefore + 1);
+    }
+
+    @Test
+    public void repeatedTicketsForTheSameUserAreDeduplicated() {
+        String userId = nextString("userId");
+        String email = nextString("rateLimited") + "@ixortalk.com";
+
+        verifyEmail(randomClientIp(), userId, email).statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(randomClientIp(), userId, email).statusCode(HTTP_MOVED_TEMP);
+
+        verify(auth0Users, times(1)).createEmailVerificationTicket(eq(userId), anyString(), anyInt());
+        mailingServiceWireMockRule.verify(1, postRequestedFor(urlEqualTo("/mailing/send")));
+    }
+
+    @Test
+    public void ticketDedupeDoesNotSuppressTicketsForAnotherEmail() {
+        String userId = nextString("userId");
+
+        verifyEmail(randomClientIp(), userId, nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(randomClientIp(), userId, nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+
+        verify(auth0Users, times(2)).createEmailVerificationTicket(eq(userId), anyString(), anyInt());
+        mailingServiceWireMockRule.verify(2, postRequestedFor(urlEqualTo("/mailing/send")));
+    }
+
+    @Test
+    public void ticketDedupeCanBeDisabled() {
+        ixorTalkConfigProperties.getOrganization().getApi().getVerifyEmail().setTicketDedupeWindow(ZERO);
+        String userId = nextString("userId");
+        String email = nextString("rateLimited") + "@ixortalk.com";
+
+        verifyEmail(randomClientIp(), userId, email).statusCode(HTTP_MOVED_TEMP);
+        verifyEmail(randomClientIp(), userId, email).statusCode(HTTP_MOVED_TEMP);
+
+        verify(auth0Users, times(2)).createEmailVerificationTicket(eq(userId), anyString(), anyInt());
+        mailingServiceWireMockRule.verify(2, postRequestedFor(urlEqualTo("/mailing/send")));
+    }
+
+    @Test
+    public void forwardedClientIpsHaveTheirOwnLimit() {
+        String firstClientIp = randomExternalClientIp();
+        String secondClientIp = randomExternalClientIp();
+
+        for (int i = 0; i < 3; i++) {
+            verifyEmail(firstClientIp + ", " + randomClientIp(), nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        }
+        verifyEmail(firstClientIp + ", " + randomClientIp(), nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(TOO_MANY_REQUESTS.value());
+
+        verifyEmail(secondClientIp + ", " + randomClientIp(), nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+    }
+
+    @Test
+    public void addressesForwardedByTheClientItselfAreIgnored() {
+        String clientIp = randomExternalClientIp();
+
+        for (int i = 0; i < 3; i++) {
+            verifyEmail(randomExternalClientIp() + ", " + clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(HTTP_MOVED_TEMP);
+        }
+        verifyEmail(randomExternalClientIp() + ", " + clientIp, nextString("userId"), nextString("rateLimited") + "@ixortalk.com").statusCode(TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void successfulVerificationsDontCount() {
+        userInOrganizationXInvited.invited(now(clock));
+        userInOrganizationXInvited = userRestResource.save(userInOrganizationXInvited);
+        String acceptKey = (String) getField(getField(userInOrganizationXInvited, "acceptKey"), "acceptKey");
+        String clientIp = randomClientIp();
+        double rejectedBefore = rejected(CLIENT_IP_LIMIT) + rejected(EMAIL_LIMIT);
+
+        for (int i = 0; i < 4; i++) {
+            verifyEmail(clientIp, nextString("userId"), userInOrganizationXInvited.getLogin(), acceptKey).statusCode(HTTP_MOVED_TEMP);
+        }
+
+        assertThat(rejected(CLIENT_IP_LIMIT) + rejected(EMAIL_LIMIT)).isEqualTo(rejectedBefore);
+        verify(auth0Users, times(4)).updateAppMetadata(eq(userInOrganizationXInvited.getLogin()), anyMap());
+    }
+
+    private ValidatableResponse verifyEmail(String forwardedFor, String userId, String email) {
+        return verifyEmail(forwardedFor, userId, email, "");
+    }
+
+    private ValidatableResponse verifyEmail(String forwardedFor, String userId, String email, String acceptKey) {
+        return given()
+                .header("X-Forwarded-For", forwardedFor)
+                .param("userId", userId)
+                .param("email", email)
+                .param("acceptKey", acceptKey)
+                .param("firstName", nextString("firstName"))
+                .param("lastName", nextString("lastName"))
+                .param("state", nextString("state"))
+                .get("/verify-email")
+                .then();
+    }
+
+    private double rejected(String limit) {
+        return meterRegistry.find(RATE_LIMIT_METER_NAME).tag("limit", limit).tag("outcome", "REJECTED").counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static String randomClientIp() {
+        return "10." + current().nextInt(256) + "." + current().nextInt(256) + "." + current().nextInt(1, 255);
+    }
+
+    private static String randomExternalClientIp() {
+        return "100." + current().nextInt(64, 128) + "." + current().nextInt(256) + "." + current().nextInt(1, 255);
+    }
+}
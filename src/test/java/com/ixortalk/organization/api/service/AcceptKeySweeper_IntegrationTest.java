@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.inject.Inject;
+
+import static java.time.Instant.now;
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {"ixortalk.organization.api.accept-key-sweep-batch-size=1"})
+public class AcceptKeySweeper_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    @Inject
+    private AcceptKeySweeper acceptKeySweeper;
+
+    @Before
+    public void before() {
+        int maxAgeInHours = ixorTalkConfigProperties.getOrganization().getApi().getInviteKeyMaxAgeInHours();
+        userInOrganizationXInvited = userRestResource.save(userInOrganizationXInvited.invited(now(clock).minus(maxAgeInHours + 1, HOURS)));
+        userInOrganizationXCreated = userRestResource.save(userInOrganizationXCreated.invited(now(clock).minus(maxAgeInHours + 2, HOURS)));
+        adminInOrganizationX = userRestResource.save(adminInOrganizationX.invited(now(clock).minus(maxAgeInHours - 1, HOURS)));
+    }
+
+    @Test
+    public void expiredKeysCleared() {
+        acceptKeySweeper.sweep();
+
+        assertThat(userRestResource.findOneById(userInOrganizationXInvited.getId()).get().getAcceptKey()).isNull();
+        assertThat(userRestResource.findOneById(userInOrganizationXCreated.getId()).get().getAcceptKey()).isNull();
+        assertThat(userRestResource.findOneById(adminInOrganizationX.getId()).get().getAcceptKey().getAcceptKey()).isEqualTo(adminInOrganizationX.getAcceptKey().getAcceptKey());
+    }
+
+    @Test
+    public void invitesOutliveVerificationKeys() {
+        userInOrganizationY = userRestResource.save(userInOrganizationY.invited(now(clock).minus(ixorTalkConfigProperties.getOrganization().getApi().getAcceptKeyMaxAgeInHours() + 1, HOURS)));
+
+        acceptKeySweeper.sweep();
+
+        assertThat(userRestResource.findOneById(userInOrganizationY.getId()).get().getAcceptKey().getAcceptKey()).isEqualTo(userInOrganizationY.getAcceptKey().getAcceptKey());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.service;
+
+import com.ixortalk.organization.api.AbstractSpringIntegrationTest;
+import com.ixortalk.organization.api.util.SqlStatements;
+import org.junit.Test;
+
+import static com.ixortalk.organization.api.config.TestConstants.USER_IN_ORGANIZATION_X_ADMIN_EMAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SecurityService_AdminAccessToUser_IntegrationTest extends AbstractSpringIntegrationTest {
+
+    private static final int ADDITIONAL_USERS = 100;
+
+    /**
+     * The admin access check on users is a single self-join of org_user on organization_id, something like
+     * {@code select count(admin.id) from org_user member cross join org_user admin where member.id=? and admin.organization_id=member.organization_id and admin.login=? and admin.is_admin=1}.
+     */
+    @Test
+    public void singleSelfJoin() {
+        SqlStatements statements = sqlStatementCounter.record(this::countOrganizationAdminsOfInvitedUser).assertAtMost(1);
+
+        insertUsersHavingRole(organizationX, ADDITIONAL_USERS, secondRoleInOrganizationX);
+
+        statements.assertGrowthAtMost(sqlStatementCounter.record(this::countOrganizationAdminsOfInvitedUser), ADDITIONAL_USERS, 0);
+        assertThat(statements.getStatements().get(0)).doesNotMatch("(?is).*\\borganization\\b.*").doesNotMatch("(?is).*\\bexists\\b.*");
+    }
+
+    private void countOrganizationAdminsOfInvitedUser() {
+        assertThat(userRestResource.countOrganizationAdmins(userInOrganizationXInvited.getId(), USER_IN_ORGANIZATION_X_ADMIN_EMAIL)).isPositive();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016-present IxorTalk CVBA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.ixortalk.organization.api.util;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.join;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatements {
+
+    private final List<String> statements;
+
+    SqlStatements(List<String> statements) {
+        this.statements = statements;
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Selects executed more than once with the same SQL, a select repeated per row of a previous result is the
+     * signature of an N+1 pattern.
+     */
+    public Map<String, Long> repeatedSelects() {
+        return statements.stream()
+                .filter(statement -> statement.trim().toLowerCase().startsWith("select"))
+                .collect(groupingBy(identity(), counting()))
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() > 1)
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public SqlStatements assertAtMost(int budget) {
+        assertThat(count()).as("SQL statements exceeding a budget of %s:%n%s", budget, this).isLessThanOrEqualTo(budget);
+        return this;
+    }
+
+    public SqlStatements assertNoRepeatedSelects() {
+        assertThat(repeatedSelects()).as("Repeated selects, possible N+1:%n%s", this).isEmpty();
+        return this;
+    }
+
+    /**
+     * Compares with the statements of the same request on a larger data set, every additional row may cost at most
+     * the given number of statements.
+     */
+    public SqlStatements assertGrowthAtMost(SqlStatements larger, int additionalRows, int statementsPerRow) {
+        assertThat(larger.count() - count())
+                .as("SQL statements growing by more than %s per row for %s additional rows:%n%s", statementsPerRow, additionalRows, larger)
+                .isLessThanOrEqualTo(additionalRows * statementsPerRow);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return join("\n", statements);
+    }
+}